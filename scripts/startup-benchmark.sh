@@ -0,0 +1,89 @@
+#!/usr/bin/env bash
+# Compares startup time and steady-state RSS of the default build against the prod profile,
+# the AOT-processed prod jar and the AOT jar with its CDS archive.
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Needs the same database settings as the app (PGHOST, PGDATABASE, PGUSER, PGPASSWORD in the
+# environment or .env). Set SKIP_BUILD=1 to reuse target/bench and target/app from a previous run.
+#
+# ENGINE (default blocking) picks the engine for every variant. The AOT variants fix it when the
+# prod jar is built, since AOT evaluates @ConditionalOnProperty at build time; passing
+# --orders.engine to an AOT launch would not swap the pipeline. For the same reason the AOT
+# variants cannot replay a capture (orders.replay.path): run the jar without
+# -Dspring.aot.enabled=true for that. With SKIP_BUILD=1, keep ENGINE at the value the jar was built with.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-3}
+PORT=${PORT:-5055}
+LOAD_ORDERS=${LOAD_ORDERS:-100}
+SETTLE_SECONDS=${SETTLE_SECONDS:-15}
+ENGINE=${ENGINE:-blocking}
+BENCH_DIR=target/bench
+APP_JAR=$(ls target/app/order-execution-engine-*.jar 2>/dev/null | head -1 || true)
+
+if [[ "${SKIP_BUILD:-0}" != 1 ]]; then
+    mkdir -p "$BENCH_DIR"
+    sh ./mvnw -q -DskipTests package
+    cp target/order-execution-engine-*.jar "$BENCH_DIR/default.jar"
+    sh ./mvnw -q -Pprod -Dorders.engine="$ENGINE" -DskipTests package
+    APP_JAR=$(ls target/app/order-execution-engine-*.jar | head -1)
+fi
+
+declare -A VARIANTS=(
+    [1-default]="-Dorders.engine=$ENGINE -jar $BENCH_DIR/default.jar"
+    [2-prod-profile]="-Dorders.engine=$ENGINE -Dspring.profiles.active=prod -jar $BENCH_DIR/default.jar"
+    [3-prod-aot]="-Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar $APP_JAR"
+    [4-prod-aot-cds]="-XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar $APP_JAR"
+)
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "<started-in ms> <first-response ms> <steady RSS MiB>" for one launch
+measure() {
+    local log="$BENCH_DIR/run.log"
+    local start pid ready started rss
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    java $1 --server.port="$PORT" > "$log" 2>&1 &
+    pid=$!
+
+    until curl -sf "http://localhost:$PORT/api/orders/queue/stats" > /dev/null; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "application exited during startup, see $log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    ready=$(( $(now_ms) - start ))
+    started=$(grep -oP 'Started \S+ in \K[0-9.]+' "$log" | awk '{ printf "%d", $1 * 1000 }')
+
+    for ((i = 0; i < LOAD_ORDERS; i++)); do
+        curl -sf -o /dev/null -H 'Content-Type: application/json' \
+            -d '{"tokenIn":"SOL","tokenOut":"USDC","amount":1,"slippage":0.01}' \
+            "http://localhost:$PORT/api/orders/execute" || true
+    done
+    sleep "$SETTLE_SECONDS"
+    rss=$(awk '/VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$pid/status")
+
+    kill -TERM "$pid"
+    wait "$pid" || true
+    echo "$started $ready $rss"
+}
+
+printf '%-16s %12s %16s %14s\n' variant started_ms first_response_ms steady_rss_mib
+for variant in $(printf '%s\n' "${!VARIANTS[@]}" | sort); do
+    total_started=0 total_ready=0 total_rss=0
+    for ((run = 0; run < RUNS; run++)); do
+        read -r started ready rss < <(measure "${VARIANTS[$variant]}")
+        total_started=$((total_started + started))
+        total_ready=$((total_ready + ready))
+        total_rss=$((total_rss + rss))
+    done
+    printf '%-16s %12d %16d %14d\n' "${variant#*-}" \
+        $((total_started / RUNS)) $((total_ready / RUNS)) $((total_rss / RUNS))
+done
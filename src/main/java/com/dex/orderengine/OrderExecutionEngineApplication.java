@@ -12,11 +12,14 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 public class OrderExecutionEngineApplication {
 
 	public static void main(String[] args) {
-		Dotenv dotenv = Dotenv.load();
-		System.setProperty("PGHOST", dotenv.get("PGHOST"));
-		System.setProperty("PGDATABASE", dotenv.get("PGDATABASE"));
-		System.setProperty("PGUSER", dotenv.get("PGUSER"));
-		System.setProperty("PGPASSWORD", dotenv.get("PGPASSWORD"));
+		// The build-time AOT step also runs main, without a .env; the variables may then come from the environment
+		Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+		for (String key : new String[]{"PGHOST", "PGDATABASE", "PGUSER", "PGPASSWORD"}) {
+			String value = dotenv.get(key);
+			if (value != null) {
+				System.setProperty(key, value);
+			}
+		}
 		SpringApplication.run(OrderExecutionEngineApplication.class, args);
 	}
 
@@ -1,12 +1,29 @@
 package com.dex.orderengine.controller;
 
+import com.dex.orderengine.dto.OrderHistoryFilter;
+import com.dex.orderengine.dto.OrderHistoryPage;
 import com.dex.orderengine.dto.OrderRequest;
 import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.dto.OrderSummary;
+import com.dex.orderengine.dto.QueueStats;
+import com.dex.orderengine.dto.RecoveryStats;
+import com.dex.orderengine.dto.ShardStats;
+import com.dex.orderengine.dto.StageStats;
+import com.dex.orderengine.dto.StateLatencyStats;
+import com.dex.orderengine.dto.VenueHealthStats;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderEvent;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.service.OrderCaptureService;
 import com.dex.orderengine.service.OrderExecutionService;
-import com.dex.orderengine.service.OrderQueueService;
+import com.dex.orderengine.service.OrderHistoryService;
+import com.dex.orderengine.service.OrderPipeline;
+import com.dex.orderengine.service.OrderRecoveryService;
+import com.dex.orderengine.service.OrderStateMachine;
+import com.dex.orderengine.service.OrderStatsService;
+import com.dex.orderengine.service.VenueHealthTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,17 +33,31 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
-@Slf4j
 @CrossOrigin(origins = "*")
 public class OrderController {
 
     private final OrderExecutionService orderExecutionService;
-    private final OrderQueueService queueService;
+    private final OrderHistoryService orderHistoryService;
+    private final OrderStatsService statsService;
+    private final OrderPipeline orderPipeline;
+    private final VenueHealthTracker venueHealthTracker;
+    private final OrderRecoveryService recoveryService;
+    private final OrderStateMachine stateMachine;
+    private final OrderCaptureService orderCapture;
 
     @PostMapping("/execute")
-    public ResponseEntity<OrderResponse> executeOrder(@Valid @RequestBody OrderRequest request) {
-        log.info("Received order execution request: {}", request);
-        OrderResponse response = orderExecutionService.submitOrder(request);
+    public ResponseEntity<OrderResponse> executeOrder(
+            @Valid @RequestBody OrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        long captureId = orderCapture.requestReceived(System.nanoTime(), request, idempotencyKey);
+        OrderResponse response;
+        try {
+            response = orderExecutionService.submitOrder(request, idempotencyKey);
+        } catch (RuntimeException e) {
+            orderCapture.requestFailed(captureId, e);
+            throw e;
+        }
+        orderCapture.requestAnswered(captureId, response);
         return ResponseEntity.ok(response);
     }
 
@@ -37,13 +68,65 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{orderId}/events")
+    public ResponseEntity<List<OrderEvent>> getOrderEvents(@PathVariable String orderId) {
+        return ResponseEntity.ok(orderExecutionService.getOrderEvents(orderId));
+    }
+
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getRecentOrders() {
-        return ResponseEntity.ok(orderExecutionService.getRecentOrders());
+    public ResponseEntity<List<OrderSummary>> getRecentOrders() {
+        return ResponseEntity.ok(orderHistoryService.getRecentOrders());
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<OrderHistoryPage> getOrderHistory(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String tokenIn,
+            @RequestParam(required = false) String tokenOut,
+            @RequestParam(required = false) DexType dex,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderHistoryFilter filter = OrderHistoryFilter.builder()
+                .status(status)
+                .tokenIn(tokenIn)
+                .tokenOut(tokenOut)
+                .dex(dex)
+                .build();
+        return ResponseEntity.ok(orderHistoryService.getHistory(filter, cursor, limit));
+    }
+
+    @GetMapping("/stats/status")
+    public ResponseEntity<Map<OrderStatus, Long>> getStatusCounts() {
+        return ResponseEntity.ok(orderHistoryService.getStatusCounts());
     }
 
     @GetMapping("/queue/stats")
-    public ResponseEntity<Map<String, Object>> getQueueStats() {
-        return ResponseEntity.ok(queueService.getQueueStats());
+    public ResponseEntity<QueueStats> getQueueStats() {
+        return ResponseEntity.ok(statsService.getCurrentStats());
+    }
+
+    @GetMapping("/stats/stages")
+    public ResponseEntity<List<StageStats>> getStageStats() {
+        return ResponseEntity.ok(orderPipeline.getStageStats());
+    }
+
+    @GetMapping("/stats/shards")
+    public ResponseEntity<List<ShardStats>> getShardStats() {
+        return ResponseEntity.ok(orderPipeline.getShardStats());
+    }
+
+    @GetMapping("/stats/states")
+    public ResponseEntity<List<StateLatencyStats>> getStateLatencies() {
+        return ResponseEntity.ok(stateMachine.getLatencyStats());
+    }
+
+    @GetMapping("/stats/venues")
+    public ResponseEntity<Map<DexType, VenueHealthStats>> getVenueHealth() {
+        return ResponseEntity.ok(venueHealthTracker.getHealth());
+    }
+
+    @GetMapping("/stats/recovery")
+    public ResponseEntity<RecoveryStats> getRecoveryStats() {
+        return ResponseEntity.ok(recoveryService.getStats());
     }
 }
@@ -1,7 +1,7 @@
 package com.dex.orderengine.controller;
 
-import com.dex.orderengine.service.OrderExecutionService;
-import com.dex.orderengine.service.OrderQueueService;
+import com.dex.orderengine.service.OrderHistoryService;
+import com.dex.orderengine.service.OrderStatsService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -11,13 +11,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 @RequiredArgsConstructor
 public class WebController {
 
-    private final OrderExecutionService orderExecutionService;
-    private final OrderQueueService queueService;
+    private final OrderHistoryService orderHistoryService;
+    private final OrderStatsService statsService;
 
     @GetMapping("/")
     public String home(Model model) {
-        model.addAttribute("recentOrders", orderExecutionService.getRecentOrders());
-        model.addAttribute("queueStats", queueService.getQueueStats());
+        model.addAttribute("recentOrders", orderHistoryService.getRecentOrders());
+        model.addAttribute("queueStats", statsService.getCurrentStats());
         return "index";
     }
 }
@@ -0,0 +1,23 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.DexType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One venue's quotes for the same swap at increasing sizes, all from a single request.
+ * {@code levels.get(k)} is the quote for {@code (k + 1) / levels.size()} of the requested amount.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepthQuote {
+    private DexType dexType;
+    private List<DexQuote> levels;
+    private long responseTimeMs;
+}
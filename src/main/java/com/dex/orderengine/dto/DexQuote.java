@@ -14,6 +14,7 @@ import java.math.BigDecimal;
 @Builder
 public class DexQuote {
     private DexType dexType;
+    private BigDecimal amountIn;
     private BigDecimal price;
     private BigDecimal fee;
     private BigDecimal outputAmount;
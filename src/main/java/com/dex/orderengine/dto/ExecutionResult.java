@@ -16,6 +16,8 @@ import java.math.BigDecimal;
 public class ExecutionResult {
     private boolean success;
     private String txHash;
+    private BigDecimal amountIn;
+    private BigDecimal outputAmount;
     private BigDecimal executedPrice;
     private DexType dex;
     private String errorMessage;
@@ -0,0 +1,19 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHistoryFilter {
+    private OrderStatus status;
+    private String tokenIn;
+    private String tokenOut;
+    private DexType dex;
+}
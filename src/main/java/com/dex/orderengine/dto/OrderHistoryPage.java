@@ -0,0 +1,18 @@
+package com.dex.orderengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHistoryPage {
+    private List<OrderSummary> orders;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -1,6 +1,7 @@
 package com.dex.orderengine.dto;
 
 import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderFill;
 import com.dex.orderengine.model.OrderStatus;
 import com.dex.orderengine.model.OrderType;
 import lombok.AllArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -28,6 +30,7 @@ public class OrderResponse {
     private BigDecimal raydiumQuote;
     private BigDecimal meteorQuote;
     private String txHash;
+    private List<OrderFill> fills;
     private String errorMessage;
     private LocalDateTime createdAt;
     private LocalDateTime completedAt;
@@ -0,0 +1,37 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderFill;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable copy of an {@link com.dex.orderengine.model.Order} taken after each pipeline write,
+ * so cache readers never observe an entity that is being modified by a worker thread.
+ */
+@Value
+@Builder
+public class OrderSnapshot {
+    String orderId;
+    String tokenIn;
+    String tokenOut;
+    BigDecimal amount;
+    BigDecimal slippage;
+    OrderType orderType;
+    OrderStatus status;
+    DexType selectedDex;
+    BigDecimal executedPrice;
+    BigDecimal raydiumQuote;
+    BigDecimal meteorQuote;
+    String txHash;
+    List<OrderFill> fills;
+    String errorMessage;
+    LocalDateTime createdAt;
+    LocalDateTime completedAt;
+}
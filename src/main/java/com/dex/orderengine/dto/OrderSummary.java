@@ -0,0 +1,35 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Column projection of {@link com.dex.orderengine.model.Order} used by the history API.
+ * Rows of both {@code orders} and {@code orders_archive} are mapped to it in
+ * {@link com.dex.orderengine.repository.OrderRepositoryCustomImpl}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+    private String orderId;
+    private String tokenIn;
+    private String tokenOut;
+    private BigDecimal amount;
+    private OrderType orderType;
+    private OrderStatus status;
+    private DexType selectedDex;
+    private BigDecimal executedPrice;
+    private String txHash;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
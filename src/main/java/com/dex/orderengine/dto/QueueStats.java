@@ -0,0 +1,27 @@
+package com.dex.orderengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueueStats {
+    private int queueSize;
+    private int processingCount;
+    private int activeOrders;
+    private int maxConcurrent;
+    private int maxQueueSize;
+    private long totalSubmitted;
+    private long totalConfirmed;
+    private long totalFailed;
+    private double ordersPerSecond;
+    private double confirmationsPerSecond;
+    private double failureRate;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,19 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.RecoverySource;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecoveryStats {
+    private RecoverySource source;
+    private boolean recovering;
+    private int recoveredOrders;
+    private Long startupTimeMs;
+    private long recoveryTimeMs;
+}
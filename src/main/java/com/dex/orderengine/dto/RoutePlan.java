@@ -0,0 +1,25 @@
+package com.dex.orderengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * How an order is executed: {@code quotes} holds each venue's quote for the whole amount,
+ * {@code legs} the child swaps actually sent, one per venue that received a share.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RoutePlan {
+    private List<DexQuote> quotes;
+    private List<DexQuote> legs;
+
+    public boolean isSplit() {
+        return legs.size() > 1;
+    }
+}
@@ -0,0 +1,23 @@
+package com.dex.orderengine.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShardStats {
+    private int shard;
+    private int pairs;
+    private int activePairs;
+    private int queuedOrders;
+    private long completed;
+    private double ordersPerSecond;
+    private double utilization;
+    private double loadRatio;
+    private String hottestPair;
+    private long pairsMovedOut;
+}
@@ -0,0 +1,24 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StageStats {
+    private OrderStatus stage;
+    private int workers;
+    private int activeWorkers;
+    private int queueSize;
+    private int queueCapacity;
+    private long completed;
+    private double tasksPerSecond;
+    private double utilization;
+    private double avgQueueTimeMs;
+    private double avgServiceTimeMs;
+}
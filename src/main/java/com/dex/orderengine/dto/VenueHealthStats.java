@@ -0,0 +1,26 @@
+package com.dex.orderengine.dto;
+
+import com.dex.orderengine.model.CircuitState;
+import com.dex.orderengine.model.DexType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VenueHealthStats {
+    private DexType dex;
+    private CircuitState circuitState;
+    private int quoteSamples;
+    private int executionSamples;
+    private double quoteSuccessRate;
+    private double fillProbability;
+    private double avgQuoteLatencyMs;
+    private double avgConfirmationLatencyMs;
+    private LocalDateTime circuitOpenedAt;
+}
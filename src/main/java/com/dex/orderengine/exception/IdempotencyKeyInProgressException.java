@@ -0,0 +1,11 @@
+package com.dex.orderengine.exception;
+
+/**
+ * The submission that first used an {@code Idempotency-Key} has not finished yet.
+ */
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dex.orderengine.exception;
+
+/**
+ * The {@code Idempotency-Key} was already used for a different request.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.dex.orderengine.exception;
+
+/**
+ * A history cursor that was not issued by the order history API.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException() {
+        super("Invalid cursor");
+    }
+}
@@ -0,0 +1,11 @@
+package com.dex.orderengine.exception;
+
+/**
+ * The {@code Idempotency-Key} header is malformed.
+ */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
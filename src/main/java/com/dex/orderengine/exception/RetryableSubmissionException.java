@@ -0,0 +1,23 @@
+package com.dex.orderengine.exception;
+
+import lombok.Getter;
+
+/**
+ * The order was not accepted, but the same request can be sent again after
+ * {@link #getRetryAfterSeconds()}.
+ */
+@Getter
+public class RetryableSubmissionException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RetryableSubmissionException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public RetryableSubmissionException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
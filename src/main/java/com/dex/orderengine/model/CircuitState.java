@@ -0,0 +1,7 @@
+package com.dex.orderengine.model;
+
+public enum CircuitState {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+}
@@ -6,16 +6,25 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "createdAt, id"),
+        @Index(name = "idx_orders_status_created_at_id", columnList = "status, createdAt, id"),
+        @Index(name = "idx_orders_pair_created_at_id", columnList = "tokenIn, tokenOut, createdAt, id"),
+        @Index(name = "idx_orders_token_out_created_at_id", columnList = "tokenOut, createdAt, id"),
+        @Index(name = "idx_orders_dex_created_at_id", columnList = "selectedDex, createdAt, id")
+})
 @Data @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -55,11 +64,26 @@ public class Order {
 
     private String txHash;
 
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "order_fills", joinColumns = @JoinColumn(name = "order_id"),
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @OrderColumn(name = "fill_index")
+    @BatchSize(size = 100)
+    @Builder.Default
+    private List<OrderFill> fills = new ArrayList<>();
+
     @Column(length = 1000)
     private String errorMessage;
 
     private Integer retryCount;
 
+    // Client-supplied key; the unique constraint rejects a second order with the same one
+    @Column(unique = true)
+    private String idempotencyKey;
+
+    // Version of the last lifecycle event folded into this row
+    private Integer eventVersion;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -67,6 +91,21 @@ public class Order {
 
     private LocalDateTime completedAt;
 
+    // System.nanoTime() when the order entered its current status in this process
+    @Transient
+    private long stateEnteredNanos;
+
+    /**
+     * Part of {@link #amount} not yet covered by a landed fill; retries only route this much.
+     */
+    public BigDecimal remainingAmount() {
+        BigDecimal filled = BigDecimal.ZERO;
+        for (OrderFill fill : fills) {
+            filled = filled.add(fill.getAmountIn());
+        }
+        return amount.subtract(filled);
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -74,6 +113,9 @@ public class Order {
         if (retryCount == null) {
             retryCount = 0;
         }
+        if (eventVersion == null) {
+            eventVersion = 0;
+        }
         if (status == null) {
             status = OrderStatus.PENDING;
         }
@@ -0,0 +1,28 @@
+package com.dex.orderengine.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only order lifecycle log. Events carry the order's routing and
+ * execution fields as they were after the transition, so replay is a left fold over them.
+ */
+@Value
+@Builder
+public class OrderEvent {
+    String orderId;
+    int version;
+    OrderEventType type;
+    OrderStatus status;
+    DexType selectedDex;
+    BigDecimal raydiumQuote;
+    BigDecimal meteorQuote;
+    BigDecimal executedPrice;
+    String txHash;
+    Integer retryCount;
+    String detail;
+    LocalDateTime occurredAt;
+}
@@ -0,0 +1,22 @@
+package com.dex.orderengine.model;
+
+public enum OrderEventType {
+    CREATED,
+    ROUTING_STARTED,
+    ROUTE_SELECTED,
+    BUILDING_STARTED,
+    SUBMITTED,
+    FILLED,
+    CONFIRMED,
+    RETRY_SCHEDULED,
+    FAILED,
+    RECOVERED;
+
+    /**
+     * Whether an event of this type moves the order to another status; the others only
+     * record data on the order.
+     */
+    public boolean changesStatus() {
+        return this != CREATED && this != ROUTE_SELECTED && this != FILLED;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dex.orderengine.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One landed child swap of an order. Orders routed to a single venue have one fill; split
+ * orders have one per venue leg.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderFill {
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private DexType dex;
+
+    @Column(nullable = false, precision = 20, scale = 10)
+    private BigDecimal amountIn;
+
+    @Column(precision = 20, scale = 10)
+    private BigDecimal outputAmount;
+
+    @Column(precision = 20, scale = 10)
+    private BigDecimal executedPrice;
+
+    private String txHash;
+}
@@ -8,6 +8,17 @@ public enum OrderStatus {
     CONFIRMED("confirmed"),
     FAILED("failed");
 
+    // Bit i of TRANSITIONS[s.ordinal()] is set if s may move to the status with ordinal i
+    private static final int[] TRANSITIONS = new int[values().length];
+
+    static {
+        // An attempt that fails before routing starts is rescheduled in place
+        allow(PENDING, ROUTING, PENDING, FAILED);
+        allow(ROUTING, BUILDING, PENDING, FAILED);
+        allow(BUILDING, SUBMITTED, PENDING, FAILED);
+        allow(SUBMITTED, CONFIRMED, PENDING, FAILED);
+    }
+
     private final String value;
 
     OrderStatus(String value) {
@@ -17,4 +28,18 @@ public enum OrderStatus {
     public String getValue() {
         return value;
     }
+
+    public boolean isTerminal() {
+        return this == CONFIRMED || this == FAILED;
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return (TRANSITIONS[ordinal()] & (1 << next.ordinal())) != 0;
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        for (OrderStatus next : to) {
+            TRANSITIONS[from.ordinal()] |= 1 << next.ordinal();
+        }
+    }
 }
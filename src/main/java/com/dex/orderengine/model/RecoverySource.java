@@ -0,0 +1,6 @@
+package com.dex.orderengine.model;
+
+public enum RecoverySource {
+    CHECKPOINT,
+    STATUS_SCAN
+}
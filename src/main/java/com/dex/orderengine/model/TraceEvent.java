@@ -0,0 +1,11 @@
+package com.dex.orderengine.model;
+
+public enum TraceEvent {
+    TRANSITION,
+    QUOTE,
+    ROUTE,
+    SWAP_SUBMITTED,
+    TX_LANDED,
+    QUEUE,
+    NOTIFY
+}
@@ -0,0 +1,13 @@
+package com.dex.orderengine.model;
+
+/**
+ * The random draws behind one simulated venue response; see {@code VenueSimulator}.
+ */
+public enum VenueDraw {
+    QUOTE_LATENCY,
+    QUOTE_PRICE,
+    SUBMIT_LATENCY,
+    LANDING_DELAY,
+    LANDING_FAILURE,
+    SLIPPAGE
+}
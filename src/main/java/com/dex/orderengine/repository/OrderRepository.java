@@ -2,19 +2,21 @@ package com.dex.orderengine.repository;
 
 import com.dex.orderengine.model.Order;
 import com.dex.orderengine.model.OrderStatus;
-import org.aspectj.weaver.ast.Or;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, String> {
+public interface OrderRepository extends JpaRepository<Order, String>, OrderRepositoryCustom {
     List<Order> findByStatusIn(List<OrderStatus> statuses);
     List<Order> findByStatusOrderByCreatedAtAsc(OrderStatus status);
-    List<Order> findTop100ByOrderByCreatedAtDesc();
     List<Order> findByCreatedAtAfter(LocalDateTime dateTime);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status IN :statuses")
@@ -22,4 +24,40 @@ public interface OrderRepository extends JpaRepository<Order, String> {
 
     @Query("SELECT o FROM Order o WHERE o.status = :status AND o.retryCount < :maxRetries")
     List<Order> findRetryableOrders(OrderStatus status, int maxRetries);
+
+    @Query(value = "SELECT * FROM orders_archive WHERE id = :orderId", nativeQuery = true)
+    Optional<Order> findArchivedById(String orderId);
+
+    Optional<Order> findByIdempotencyKey(String idempotencyKey);
+
+    // Frees the key of an order that was rejected on arrival, so the client can retry with it
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.idempotencyKey = NULL WHERE o.id = :orderId")
+    int clearIdempotencyKey(String orderId);
+
+    // The status-aware queries below name their statuses as literals rather than bind
+    // parameters, so the planner can match them to the partial indexes from migration V3.
+
+    @Query("""
+            SELECT o FROM Order o
+            WHERE o.status IN (com.dex.orderengine.model.OrderStatus.PENDING,
+                               com.dex.orderengine.model.OrderStatus.ROUTING,
+                               com.dex.orderengine.model.OrderStatus.BUILDING,
+                               com.dex.orderengine.model.OrderStatus.SUBMITTED)
+              AND o.createdAt < :createdBefore
+              AND (o.createdAt, o.id) > (:afterCreatedAt, :afterId)
+            ORDER BY o.createdAt, o.id""")
+    List<Order> findInFlightOrders(LocalDateTime createdBefore, LocalDateTime afterCreatedAt,
+                                   String afterId, Limit limit);
+
+    @Query("""
+            SELECT o FROM Order o
+            WHERE o.status = com.dex.orderengine.model.OrderStatus.PENDING
+              AND o.retryCount < :maxRetries
+            ORDER BY o.createdAt""")
+    List<Order> findRetryablePendingOrders(int maxRetries);
+
+    @Query(value = "SELECT status, SUM(order_count) FROM order_status_counts GROUP BY status", nativeQuery = true)
+    List<Object[]> sumStatusCounts();
 }
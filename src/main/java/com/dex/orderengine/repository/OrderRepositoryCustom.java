@@ -0,0 +1,16 @@
+package com.dex.orderengine.repository;
+
+import com.dex.orderengine.dto.OrderHistoryFilter;
+import com.dex.orderengine.dto.OrderSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Keyset page over {@code (createdAt, id)} in descending order. Pass {@code null} for
+     * {@code afterCreatedAt}/{@code afterId} to read the first page.
+     */
+    List<OrderSummary> findHistory(OrderHistoryFilter filter, LocalDateTime afterCreatedAt, String afterId, int limit);
+}
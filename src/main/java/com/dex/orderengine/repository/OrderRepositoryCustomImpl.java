@@ -0,0 +1,83 @@
+package com.dex.orderengine.repository;
+
+import com.dex.orderengine.dto.OrderHistoryFilter;
+import com.dex.orderengine.dto.OrderSummary;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String SUMMARY_COLUMNS = "id, token_in, token_out, amount, order_type, status, "
+            + "selected_dex, executed_price, tx_hash, created_at, completed_at";
+
+    private static final String KEYSET_ORDER = " ORDER BY created_at DESC, id DESC LIMIT :limit";
+
+    private static final RowMapper<OrderSummary> SUMMARY_ROW_MAPPER = (rs, rowNum) -> new OrderSummary(
+            rs.getString("id"),
+            rs.getString("token_in"),
+            rs.getString("token_out"),
+            rs.getBigDecimal("amount"),
+            OrderType.valueOf(rs.getString("order_type")),
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getString("selected_dex") == null ? null : DexType.valueOf(rs.getString("selected_dex")),
+            rs.getBigDecimal("executed_price"),
+            rs.getString("tx_hash"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("completed_at", LocalDateTime.class));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Reads the page from {@code orders} and {@code orders_archive} separately, each with its
+     * own keyset limit, and merges the two, so archived orders stay in the history and each
+     * branch still walks its own index.
+     */
+    @Override
+    public List<OrderSummary> findHistory(OrderHistoryFilter filter, LocalDateTime afterCreatedAt,
+                                          String afterId, int limit) {
+        // Only the supplied filters are rendered so that each combination gets a plan that
+        // can use the matching composite index instead of "(:param IS NULL OR ...)" guards.
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+
+        if (filter.getStatus() != null) {
+            where.append(" AND status = :status");
+            params.addValue("status", filter.getStatus().name());
+        }
+        if (filter.getTokenIn() != null) {
+            where.append(" AND token_in = :tokenIn");
+            params.addValue("tokenIn", filter.getTokenIn());
+        }
+        if (filter.getTokenOut() != null) {
+            where.append(" AND token_out = :tokenOut");
+            params.addValue("tokenOut", filter.getTokenOut());
+        }
+        if (filter.getDex() != null) {
+            where.append(" AND selected_dex = :dex");
+            params.addValue("dex", filter.getDex().name());
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            where.append(" AND (created_at, id) < (:afterCreatedAt, :afterId)");
+            params.addValue("afterCreatedAt", afterCreatedAt);
+            params.addValue("afterId", afterId);
+        }
+
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM ("
+                + "(SELECT " + SUMMARY_COLUMNS + " FROM orders" + where + KEYSET_ORDER + ")"
+                + " UNION ALL "
+                + "(SELECT " + SUMMARY_COLUMNS + " FROM orders_archive" + where + KEYSET_ORDER + ")"
+                + ") history" + KEYSET_ORDER;
+        return jdbcTemplate.query(sql, params, SUMMARY_ROW_MAPPER);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Default engine: each order occupies one {@code orderExecutor} thread from routing until
+ * its swap is submitted, waiting on quotes, the build delay and the broadcast in turn.
+ * Confirmation is left to {@link ConfirmationTracker}.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.engine", havingValue = "blocking", matchIfMissing = true)
+@Slf4j
+public class BlockingOrderPipeline implements OrderPipeline {
+
+    private static final long BUILD_DELAY_MS = 500;
+
+    private final Executor orderExecutor;
+    private final MockDexRoutingService dexRoutingService;
+    private final SplitOrderRouter splitRouter;
+    private final OrderLifecycle lifecycle;
+    private final ConfirmationTracker confirmationTracker;
+
+    public BlockingOrderPipeline(@Qualifier("orderExecutor") Executor orderExecutor,
+                                 MockDexRoutingService dexRoutingService,
+                                 SplitOrderRouter splitRouter,
+                                 OrderLifecycle lifecycle,
+                                 ConfirmationTracker confirmationTracker) {
+        this.orderExecutor = orderExecutor;
+        this.dexRoutingService = dexRoutingService;
+        this.splitRouter = splitRouter;
+        this.lifecycle = lifecycle;
+        this.confirmationTracker = confirmationTracker;
+    }
+
+    @Override
+    public void execute(Order order) {
+        orderExecutor.execute(() -> executeOrder(order));
+    }
+
+    @Override
+    public void awaitConfirmation(Order order, List<String> txHashes) {
+        confirmationTracker.resume(order, txHashes,
+                errorMessage -> orderExecutor.execute(() -> handleRetry(order, errorMessage)));
+    }
+
+    private void executeOrder(Order order) {
+        try {
+            lifecycle.startRouting(order);
+
+            RoutePlan plan = splitRouter.route(order).get();
+            lifecycle.routeSelected(order, plan);
+
+            lifecycle.startBuilding(order);
+            Thread.sleep(BUILD_DELAY_MS);
+
+            List<String> txHashes = dexRoutingService.submitSwaps(order, plan.getLegs()).get();
+            lifecycle.submitted(order, txHashes);
+
+            // The worker is released here; the tracker confirms the order once its transactions land
+            confirmationTracker.track(order, plan.getLegs(), txHashes,
+                    errorMessage -> orderExecutor.execute(() -> handleRetry(order, errorMessage)));
+
+        } catch (Exception e) {
+            log.error("Error during order execution: {}", e.getMessage(), e);
+            handleRetry(order, e.getMessage());
+        }
+    }
+
+    private void handleRetry(Order order, String errorMessage) {
+        long delay = lifecycle.retryOrFail(order, errorMessage);
+        if (delay < 0) {
+            return;
+        }
+
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lifecycle.requeue(order);
+    }
+}
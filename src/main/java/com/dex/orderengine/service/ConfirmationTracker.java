@@ -0,0 +1,219 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.ExecutionResult;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds submitted orders until their transactions land. Outstanding hashes are checked in
+ * batched status queries on the tracker's own timer thread, so no pipeline thread waits out
+ * the confirmation window, worker occupancy is independent of confirmation latency, and the
+ * completion callbacks never hold up the shared scheduler.
+ */
+@Service
+@Slf4j
+public class ConfirmationTracker {
+
+    private static final long POLL_INTERVAL_MS = 250;
+    private static final int STATUS_BATCH_SIZE = 100;
+    static final long CONFIRMATION_TIMEOUT_MS = 30_000;
+
+    private final MockChainStatusService chainStatusService;
+    private final OrderLifecycle lifecycle;
+    private final VenueHealthTracker venueHealth;
+
+    private final LongSupplier clock;
+
+    private final Map<String, PendingLeg> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService poller =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ConfirmationTracker-"));
+
+    @Autowired
+    public ConfirmationTracker(MockChainStatusService chainStatusService,
+                               OrderLifecycle lifecycle,
+                               VenueHealthTracker venueHealth) {
+        this(chainStatusService, lifecycle, venueHealth, System::currentTimeMillis);
+    }
+
+    ConfirmationTracker(MockChainStatusService chainStatusService,
+                        OrderLifecycle lifecycle,
+                        VenueHealthTracker venueHealth,
+                        LongSupplier clock) {
+        this.chainStatusService = chainStatusService;
+        this.lifecycle = lifecycle;
+        this.venueHealth = venueHealth;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void start() {
+        poller.scheduleWithFixedDelay(this::pollConfirmations, POLL_INTERVAL_MS, POLL_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // Container shutdown runs after the engine has drained, so in-flight orders were given their chance
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+    }
+
+    /**
+     * Parks a submitted order with the transactions of all its legs. Each leg that lands is
+     * added to the order as a fill; once every leg has resolved the order is marked CONFIRMED,
+     * or, if any leg failed or timed out, {@code onFailure} is called so the pipeline can
+     * retry the unfilled remainder. Callbacks run on the polling thread and must not block.
+     */
+    public void track(Order order, List<DexQuote> legs, List<String> txHashes, Consumer<String> onFailure) {
+        PendingSubmission submission = new PendingSubmission(order, onFailure, txHashes.size(),
+                clock.getAsLong());
+        for (int i = 0; i < txHashes.size(); i++) {
+            pending.put(txHashes.get(i), new PendingLeg(submission, legs.get(i).getDexType()));
+        }
+    }
+
+    /**
+     * Tracks transactions an order broadcast before a restart. Their venues are not known
+     * until a status comes back, and the confirmation window starts over.
+     */
+    public void resume(Order order, List<String> txHashes, Consumer<String> onFailure) {
+        PendingSubmission submission = new PendingSubmission(order, onFailure, txHashes.size(),
+                clock.getAsLong());
+        for (String txHash : txHashes) {
+            pending.put(txHash, new PendingLeg(submission, null));
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void pollConfirmations() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            pollPending();
+        } catch (RuntimeException e) {
+            // A throw would cancel the periodic poll and strand every tracked order
+            log.error("Confirmation poll failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void pollPending() {
+
+        List<String> batch = new ArrayList<>(STATUS_BATCH_SIZE);
+        for (String txHash : pending.keySet()) {
+            batch.add(txHash);
+            if (batch.size() == STATUS_BATCH_SIZE) {
+                resolve(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            resolve(batch);
+        }
+    }
+
+    private void resolve(List<String> batch) {
+        Map<String, ExecutionResult> statuses = chainStatusService.getStatuses(batch);
+        long timeoutBefore = clock.getAsLong() - CONFIRMATION_TIMEOUT_MS;
+
+        for (String txHash : batch) {
+            ExecutionResult result = statuses.get(txHash);
+            if (result == null) {
+                PendingLeg current = pending.get(txHash);
+                if (current == null || current.submission.submittedAtMillis > timeoutBefore) {
+                    continue;
+                }
+                result = ExecutionResult.builder()
+                        .success(false)
+                        .txHash(txHash)
+                        .errorMessage("Transaction was not confirmed within " + CONFIRMATION_TIMEOUT_MS + "ms")
+                        .build();
+            }
+            PendingLeg leg = pending.remove(txHash);
+            if (leg != null) {
+                complete(leg, result);
+            }
+        }
+    }
+
+    private void complete(PendingLeg leg, ExecutionResult result) {
+        PendingSubmission submission = leg.submission;
+        Order order = submission.order;
+        DexType dex = leg.dex != null ? leg.dex : result.getDex();
+        if (dex != null) {
+            venueHealth.recordExecution(dex,
+                    clock.getAsLong() - submission.submittedAtMillis, result.isSuccess());
+        }
+        try {
+            if (result.isSuccess()) {
+                lifecycle.filled(order, result);
+            } else if (submission.failure == null) {
+                submission.failure = result.getErrorMessage();
+            }
+
+            if (--submission.outstanding > 0) {
+                return;
+            }
+            if (submission.failure == null) {
+                lifecycle.confirmed(order);
+            } else {
+                submission.onFailure.accept(submission.failure);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error completing order {}, failing it: {}", order.getId(), e.getMessage(), e);
+            try {
+                lifecycle.abort(order, "Order could not be completed: " + e.getMessage());
+            } catch (RuntimeException abortError) {
+                log.error("Could not fail order {}: {}", order.getId(), abortError.getMessage(), abortError);
+            }
+        }
+    }
+
+    private static final class PendingLeg {
+        private final PendingSubmission submission;
+        private final DexType dex;
+
+        private PendingLeg(PendingSubmission submission, DexType dex) {
+            this.submission = submission;
+            this.dex = dex;
+        }
+    }
+
+    /**
+     * Legs of one submitted route. Only touched from the polling thread.
+     */
+    private static final class PendingSubmission {
+        private final Order order;
+        private final Consumer<String> onFailure;
+        private final long submittedAtMillis;
+        private int outstanding;
+        private String failure;
+
+        private PendingSubmission(Order order, Consumer<String> onFailure, int outstanding,
+                                  long submittedAtMillis) {
+            this.order = order;
+            this.onFailure = onFailure;
+            this.outstanding = outstanding;
+            this.submittedAtMillis = submittedAtMillis;
+        }
+    }
+}
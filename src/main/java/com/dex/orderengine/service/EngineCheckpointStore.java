@@ -0,0 +1,109 @@
+package com.dex.orderengine.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shutdown checkpoint: the ids of the orders the engine still owed work on when it stopped,
+ * in dispatch order. The file is written only after a clean drain, so its presence means the
+ * ids are everything there is to resume and the startup status scan can be skipped. It is
+ * deleted as soon as it is read; a crash before the next clean shutdown leaves no file.
+ */
+@Service
+@Slf4j
+public class EngineCheckpointStore {
+
+    private static final int MAGIC = 0x4F454350; // "OECP"
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path checkpointPath;
+
+    public EngineCheckpointStore(
+            @Value("${orders.lifecycle.checkpoint-path:data/engine-checkpoint.bin}") String checkpointPath) {
+        this.checkpointPath = Path.of(checkpointPath);
+    }
+
+    public void write(List<String> orderIds) throws IOException {
+        Path parent = checkpointPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "engine-checkpoint", ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(orderIds.size());
+            for (String orderId : orderIds) {
+                out.writeUTF(orderId);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        // A reader sees either the previous file or the complete new one, never a partial write
+        Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote engine checkpoint with {} orders to {}", orderIds.size(), checkpointPath);
+    }
+
+    /**
+     * Reads and removes the checkpoint. Empty if there is none or it cannot be trusted.
+     */
+    public Optional<List<String>> take() {
+        if (!Files.exists(checkpointPath)) {
+            return Optional.empty();
+        }
+
+        List<String> orderIds;
+        try {
+            orderIds = read();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable engine checkpoint {}: {}", checkpointPath, e.getMessage());
+            delete();
+            return Optional.empty();
+        }
+        // A checkpoint that outlives this start would be stale by the next one
+        if (!delete()) {
+            return Optional.empty();
+        }
+        log.info("Loaded engine checkpoint with {} orders from {}", orderIds.size(), checkpointPath);
+        return Optional.of(orderIds);
+    }
+
+    private List<String> read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("unrecognised format");
+            }
+            in.readLong();
+            int count = in.readInt();
+            List<String> orderIds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                orderIds.add(in.readUTF());
+            }
+            return orderIds;
+        }
+    }
+
+    private boolean delete() {
+        try {
+            Files.deleteIfExists(checkpointPath);
+            return true;
+        } catch (IOException e) {
+            log.error("Could not delete engine checkpoint {}, falling back to a status scan", checkpointPath, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.exception.IdempotencyKeyMismatchException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recently seen {@code Idempotency-Key}s and the response of the submission that first used
+ * each one. A lookup is a single hash-map operation on the submit path. Entries expire and
+ * the index is bounded; keys that have fallen out are still caught by the unique constraint
+ * on {@code orders.idempotency_key}.
+ */
+@Service
+@Slf4j
+public class IdempotencyIndex {
+
+    private static final int MAX_KEYS = 100_000;
+    private static final long KEY_TTL_NANOS = TimeUnit.HOURS.toNanos(24);
+
+    private final Map<String, Submission> keys = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Claims the key for {@code request}. Returns empty if the caller now owns the key and must
+     * finish with {@link #complete} or {@link #release}; otherwise returns the response of the
+     * submission that claimed it first, which may still be in progress.
+     *
+     * @throws IdempotencyKeyMismatchException if the key was already used for a different request
+     */
+    public Optional<CompletableFuture<OrderResponse>> claim(String key, OrderRequest request) {
+        long now = System.nanoTime();
+        Submission claimed = new Submission(request, now + KEY_TTL_NANOS);
+        Submission current = keys.compute(key,
+                (k, existing) -> existing == null || existing.isExpired(now) ? claimed : existing);
+
+        if (current == claimed) {
+            insertionOrder.offer(key);
+            evictOverflow();
+            return Optional.empty();
+        }
+        if (!sameRequest(current.request, request)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request");
+        }
+        return Optional.of(current.response);
+    }
+
+    public void complete(String key, OrderResponse response) {
+        Submission submission = keys.get(key);
+        if (submission != null) {
+            submission.response.complete(response);
+        }
+    }
+
+    /**
+     * Gives up a claimed key after the submission failed, so the client can retry with it.
+     */
+    public void release(String key, Throwable error) {
+        Submission submission = keys.remove(key);
+        if (submission != null) {
+            submission.response.completeExceptionally(error);
+        }
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictExpired() {
+        long now = System.nanoTime();
+        int before = keys.size();
+        keys.values().removeIf(submission -> submission.isExpired(now));
+        insertionOrder.removeIf(key -> !keys.containsKey(key));
+
+        int evicted = before - keys.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired idempotency keys. Indexed: {}", evicted, keys.size());
+        }
+    }
+
+    // Amounts are compared by value: a client re-serialising 1.0 as 1.00 is sending the same order
+    static boolean sameRequest(OrderRequest a, OrderRequest b) {
+        return Objects.equals(a.getTokenIn(), b.getTokenIn())
+                && Objects.equals(a.getTokenOut(), b.getTokenOut())
+                && sameAmount(a.getAmount(), b.getAmount())
+                && sameAmount(a.getSlippage(), b.getSlippage());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private void evictOverflow() {
+        while (keys.size() > MAX_KEYS) {
+            String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            keys.remove(eldest);
+        }
+    }
+
+    private static final class Submission {
+        private final OrderRequest request;
+        private final CompletableFuture<OrderResponse> response = new CompletableFuture<>();
+        private final long expiresAtNanos;
+
+        private Submission(OrderRequest request, long expiresAtNanos) {
+            this.request = request;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.ExecutionResult;
+import com.dex.orderengine.model.VenueDraw;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for the chain's transaction status RPC. Broadcast transactions land after
+ * 2-3 s; until then they are reported as pending by simply being absent from the result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MockChainStatusService {
+
+    private final Map<String, PendingTransaction> transactions = new ConcurrentHashMap<>();
+    private final OrderTraceLog trace;
+    private final VenueSimulator simulator;
+
+    public void broadcast(String txHash, DexQuote leg) {
+        long landsAtMillis = System.currentTimeMillis() + 2000
+                + (long) (simulator.next(VenueDraw.LANDING_DELAY, leg.getDexType()) * 1000);
+        transactions.put(txHash, new PendingTransaction(leg, landsAtMillis));
+    }
+
+    /**
+     * Looks up a batch of transactions in one call. Only transactions that have landed, or
+     * are unknown, appear in the returned map; everything else is still pending.
+     */
+    public Map<String, ExecutionResult> getStatuses(Collection<String> txHashes) {
+        long now = System.currentTimeMillis();
+        Map<String, ExecutionResult> statuses = new HashMap<>();
+
+        for (String txHash : txHashes) {
+            PendingTransaction tx = transactions.get(txHash);
+            if (tx == null) {
+                statuses.put(txHash, ExecutionResult.builder()
+                        .success(false)
+                        .txHash(txHash)
+                        .errorMessage("Transaction not found")
+                        .build());
+            } else if (now >= tx.landsAtMillis) {
+                transactions.remove(txHash);
+                statuses.put(txHash, land(txHash, tx));
+            }
+        }
+        return statuses;
+    }
+
+    private ExecutionResult land(String txHash, PendingTransaction tx) {
+        if (simulator.next(VenueDraw.LANDING_FAILURE, tx.leg.getDexType()) < 0.05) {
+            log.warn("Simulated failure for transaction {}", txHash);
+            return ExecutionResult.builder()
+                    .success(false)
+                    .txHash(txHash)
+                    .dex(tx.leg.getDexType())
+                    .errorMessage("Simulated network error - transaction timeout")
+                    .build();
+        }
+
+        BigDecimal slippageVariation = new BigDecimal(1 - simulator.next(VenueDraw.SLIPPAGE, tx.leg.getDexType()) * 0.01);
+        BigDecimal executedPrice = tx.leg.getPrice().multiply(slippageVariation)
+                .setScale(6, RoundingMode.HALF_UP);
+        BigDecimal outputAmount = tx.leg.getOutputAmount().multiply(slippageVariation)
+                .setScale(6, RoundingMode.HALF_UP);
+
+        trace.txLanded(tx.leg.getDexType(), txHash, executedPrice);
+
+        return ExecutionResult.builder()
+                .success(true)
+                .txHash(txHash)
+                .amountIn(tx.leg.getAmountIn())
+                .outputAmount(outputAmount)
+                .executedPrice(executedPrice)
+                .dex(tx.leg.getDexType())
+                .build();
+    }
+
+    private static final class PendingTransaction {
+        private final DexQuote leg;
+        private final long landsAtMillis;
+
+        private PendingTransaction(DexQuote leg, long landsAtMillis) {
+            this.leg = leg;
+            this.landsAtMillis = landsAtMillis;
+        }
+    }
+}
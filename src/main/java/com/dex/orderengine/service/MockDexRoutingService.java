@@ -1,143 +1,188 @@
 package com.dex.orderengine.service;
 
+import com.dex.orderengine.dto.DepthQuote;
 import com.dex.orderengine.dto.DexQuote;
-import com.dex.orderengine.dto.ExecutionResult;
 import com.dex.orderengine.model.DexType;
 import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.VenueDraw;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class MockDexRoutingService {
 
     private static final Random random = new Random();
     private static final BigDecimal BASE_SOL_PRICE = new BigDecimal("100.00");
 
-    public CompletableFuture<DexQuote> getRaydiumQuote(String tokenIn, String tokenOut, BigDecimal amount) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                long startTime = System.currentTimeMillis();
-                Thread.sleep(150 + random.nextInt(100));
-
-                BigDecimal priceMultiplier = new BigDecimal("0.98").add(
-                        new BigDecimal(random.nextDouble() * 0.04)
-                );
-                BigDecimal price = BASE_SOL_PRICE.multiply(priceMultiplier).setScale(6, RoundingMode.HALF_UP);
-                BigDecimal fee = new BigDecimal("0.003");
-                BigDecimal outputAmount = amount.multiply(price).multiply(BigDecimal.ONE.subtract(fee))
-                        .setScale(6, RoundingMode.HALF_UP);
-
-                long responseTime = System.currentTimeMillis() - startTime;
-
-                log.info("Raydium quote for {} {} -> {}: price={}, output={}, fee={}",
-                        amount, tokenIn, tokenOut, price, outputAmount, fee);
-
-                return DexQuote.builder()
-                        .dexType(DexType.RAYDIUM)
-                        .price(price)
-                        .fee(fee)
-                        .outputAmount(outputAmount)
-                        .responseTimeMs(responseTime)
-                        .build();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Raydium quote interrupted", e);
-            }
-        });
+    // Simulated pools; reserve is the tokenIn side, which sets how fast price degrades with size
+    private static final Map<DexType, VenueModel> VENUES = Map.of(
+            DexType.RAYDIUM, new VenueModel("Raydium", 150, 100, "0.98", 0.04, "0.003", 5_000),
+            DexType.METEORA, new VenueModel("Meteora", 180, 120, "0.97", 0.05, "0.002", 2_000));
+
+    private final MockChainStatusService chainStatusService;
+    private final VenueHealthTracker venueHealth;
+    private final OrderTraceLog trace;
+    private final VenueSimulator simulator;
+
+    /**
+     * Requests a quote for the whole amount from every venue whose circuit breaker allows it
+     * and completes with the ones that arrive. Fails only if no venue could be asked or none
+     * of them answered.
+     */
+    public CompletableFuture<List<DexQuote>> getQuotes(String tokenIn, String tokenOut, BigDecimal amount) {
+        return fanOut(dex -> requestQuotes(dex, tokenIn, tokenOut, amount, 1)
+                .thenApply(depth -> depth.getLevels().get(0)));
     }
 
-    public CompletableFuture<DexQuote> getMeteorQuote(String tokenIn, String tokenOut, BigDecimal amount) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                long startTime = System.currentTimeMillis();
-                Thread.sleep(180 + random.nextInt(120));
-
-                BigDecimal priceMultiplier = new BigDecimal("0.97").add(
-                        new BigDecimal(random.nextDouble() * 0.05)
-                );
-                BigDecimal price = BASE_SOL_PRICE.multiply(priceMultiplier).setScale(6, RoundingMode.HALF_UP);
-                BigDecimal fee = new BigDecimal("0.002");
-                BigDecimal outputAmount = amount.multiply(price).multiply(BigDecimal.ONE.subtract(fee))
-                        .setScale(6, RoundingMode.HALF_UP);
-
-                long responseTime = System.currentTimeMillis() - startTime;
-
-                log.info("Meteora quote for {} {} -> {}: price={}, output={}, fee={}",
-                        amount, tokenIn, tokenOut, price, outputAmount, fee);
-
-                return DexQuote.builder()
-                        .dexType(DexType.METEORA)
-                        .price(price)
-                        .fee(fee)
-                        .outputAmount(outputAmount)
-                        .responseTimeMs(responseTime)
-                        .build();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new RuntimeException("Meteora quote interrupted", e);
-            }
-        });
+    /**
+     * Like {@link #getQuotes}, but each venue quotes {@code levels} evenly spaced sizes up to
+     * the full amount in one response, exposing how its price degrades with size.
+     */
+    public CompletableFuture<List<DepthQuote>> getDepthQuotes(String tokenIn, String tokenOut,
+                                                              BigDecimal amount, int levels) {
+        return fanOut(dex -> requestQuotes(dex, tokenIn, tokenOut, amount, levels));
     }
 
-    public DexQuote selectBestQuote(DexQuote raydiumQuote, DexQuote meteoraQuote) {
-        if (raydiumQuote.getOutputAmount().compareTo(meteoraQuote.getOutputAmount()) > 0) {
-            log.info("Selected Raydium - Better output: {} vs Meteora: {}",
-                    raydiumQuote.getOutputAmount(), meteoraQuote.getOutputAmount());
-            return raydiumQuote;
-        } else {
-            log.info("Selected Meteora - Better output: {} vs Raydium: {}",
-                    meteoraQuote.getOutputAmount(), raydiumQuote.getOutputAmount());
-            return meteoraQuote;
+    private <T> CompletableFuture<List<T>> fanOut(Function<DexType, CompletableFuture<T>> request) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (DexType dex : DexType.values()) {
+            if (!venueHealth.allowQuote(dex)) {
+                log.debug("Skipping {} quote, circuit is open", dex);
+                continue;
+            }
+            long startTime = System.currentTimeMillis();
+            futures.add(request.apply(dex).whenComplete((quote, error) ->
+                    venueHealth.recordQuote(dex, System.currentTimeMillis() - startTime, error == null)));
         }
-    }
 
-    public ExecutionResult executeSwap(DexType dex, Order order, DexQuote quote) {
-        try {
-            log.info("Executing swap on {} for order {}", dex, order.getId());
-
-            int executionDelay = 2000 + random.nextInt(1000);
-            Thread.sleep(executionDelay);
+        if (futures.isEmpty()) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("No venue available, every circuit breaker is open"));
+        }
 
-            if (random.nextDouble() < 0.05) {
-                log.warn("Simulated swap failure for order {}", order.getId());
-                return ExecutionResult.builder()
-                        .success(false)
-                        .dex(dex)
-                        .errorMessage("Simulated network error - transaction timeout")
-                        .build();
+        List<CompletableFuture<T>> settled = futures.stream()
+                .map(future -> future.exceptionally(error -> null))
+                .toList();
+        return CompletableFuture.allOf(settled.toArray(new CompletableFuture[0])).thenApply(done -> {
+            List<T> quotes = settled.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .toList();
+            if (quotes.isEmpty()) {
+                throw new IllegalStateException("No venue returned a quote");
             }
+            return quotes;
+        });
+    }
 
-            BigDecimal slippageVariation = new BigDecimal(1 - random.nextDouble() * 0.01);
-            BigDecimal executedPrice = quote.getPrice().multiply(slippageVariation)
-                    .setScale(6, RoundingMode.HALF_UP);
-
-            String txHash = generateMockTxHash();
+    private CompletableFuture<DepthQuote> requestQuotes(DexType dex, String tokenIn, String tokenOut,
+                                                        BigDecimal amount, int levels) {
+        VenueModel venue = VENUES.get(dex);
+        long startTime = System.currentTimeMillis();
+        // The simulated latency is a timer rather than a sleeping pool thread
+        long latencyMs = venue.minLatencyMs
+                + (long) (simulator.next(VenueDraw.QUOTE_LATENCY, dex) * venue.latencyJitterMs);
+        Executor delayed = CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> {
+            BigDecimal priceMultiplier = venue.priceFloor.add(
+                    new BigDecimal(simulator.next(VenueDraw.QUOTE_PRICE, dex) * venue.priceSpread)
+            );
+            BigDecimal spotPrice = BASE_SOL_PRICE.multiply(priceMultiplier).setScale(6, RoundingMode.HALF_UP);
+            long responseTime = System.currentTimeMillis() - startTime;
+
+            List<DexQuote> quotes = new ArrayList<>(levels);
+            for (int level = 1; level <= levels; level++) {
+                BigDecimal size = amount.multiply(BigDecimal.valueOf(level))
+                        .divide(BigDecimal.valueOf(levels), 10, RoundingMode.HALF_UP);
+                quotes.add(quoteAt(dex, venue, spotPrice, size, responseTime));
+            }
 
-            log.info("Swap executed successfully on {} - txHash: {}, price: {}",
-                    dex, txHash, executedPrice);
+            DexQuote full = quotes.get(levels - 1);
+            trace.quote(dex, tokenIn, tokenOut, amount, full.getPrice(), full.getOutputAmount());
 
-            return ExecutionResult.builder()
-                    .success(true)
-                    .txHash(txHash)
-                    .executedPrice(executedPrice)
-                    .dex(dex)
+            return DepthQuote.builder()
+                    .dexType(dex)
+                    .levels(quotes)
+                    .responseTimeMs(responseTime)
                     .build();
+        }, delayed);
+    }
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return ExecutionResult.builder()
-                    .success(false)
-                    .dex(dex)
-                    .errorMessage("Execution interrupted")
-                    .build();
+    private DexQuote quoteAt(DexType dex, VenueModel venue, BigDecimal spotPrice, BigDecimal amountIn,
+                             long responseTime) {
+        // Constant-product pool: the effective price falls as the trade eats into the reserve
+        BigDecimal amountAfterFee = amountIn.multiply(BigDecimal.ONE.subtract(venue.fee));
+        BigDecimal price = spotPrice.multiply(venue.reserve)
+                .divide(venue.reserve.add(amountAfterFee), 6, RoundingMode.HALF_UP);
+        BigDecimal outputAmount = amountAfterFee.multiply(price).setScale(6, RoundingMode.HALF_UP);
+
+        return DexQuote.builder()
+                .dexType(dex)
+                .amountIn(amountIn)
+                .price(price)
+                .fee(venue.fee)
+                .outputAmount(outputAmount)
+                .responseTimeMs(responseTime)
+                .build();
+    }
+
+    /**
+     * Picks the quote with the best {@link VenueHealthTracker#score}, i.e. the highest output
+     * once weighted by the venue's fill probability and latency, rather than raw output alone.
+     */
+    public DexQuote selectBestQuote(List<DexQuote> quotes) {
+        DexQuote best = null;
+        BigDecimal bestScore = null;
+        for (DexQuote quote : quotes) {
+            BigDecimal score = venueHealth.score(quote);
+            if (best == null || score.compareTo(bestScore) > 0) {
+                best = quote;
+                bestScore = score;
+            }
         }
+        return best;
+    }
+
+    /**
+     * Signs and broadcasts one swap, completing with its transaction hash once the RPC node
+     * accepts it. Whether the swap lands is reported later by {@link MockChainStatusService}.
+     */
+    public CompletableFuture<String> submitSwap(Order order, DexQuote leg) {
+        long latencyMs = 50 + (long) (simulator.next(VenueDraw.SUBMIT_LATENCY, leg.getDexType()) * 100);
+        Executor delayed = CompletableFuture.delayedExecutor(latencyMs, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> {
+            String txHash = generateMockTxHash();
+            chainStatusService.broadcast(txHash, leg);
+            trace.swapSubmitted(order.getId(), leg.getDexType(), txHash, leg.getAmountIn());
+            return txHash;
+        }, delayed);
+    }
+
+    /**
+     * Submits every leg of a route in parallel; the hashes are in the same order as the legs.
+     */
+    public CompletableFuture<List<String>> submitSwaps(Order order, List<DexQuote> legs) {
+        List<CompletableFuture<String>> submissions = legs.stream()
+                .map(leg -> submitSwap(order, leg))
+                .toList();
+        return CompletableFuture.allOf(submissions.toArray(new CompletableFuture[0]))
+                .thenApply(done -> submissions.stream().map(CompletableFuture::join).toList());
     }
 
     private String generateMockTxHash() {
@@ -148,4 +193,25 @@ public class MockDexRoutingService {
         }
         return hash.toString();
     }
+
+    private static final class VenueModel {
+        private final String name;
+        private final int minLatencyMs;
+        private final int latencyJitterMs;
+        private final BigDecimal priceFloor;
+        private final double priceSpread;
+        private final BigDecimal fee;
+        private final BigDecimal reserve;
+
+        private VenueModel(String name, int minLatencyMs, int latencyJitterMs, String priceFloor,
+                           double priceSpread, String fee, long reserve) {
+            this.name = name;
+            this.minLatencyMs = minLatencyMs;
+            this.latencyJitterMs = latencyJitterMs;
+            this.priceFloor = new BigDecimal(priceFloor);
+            this.priceSpread = priceSpread;
+            this.fee = new BigDecimal(fee);
+            this.reserve = BigDecimal.valueOf(reserve);
+        }
+    }
 }
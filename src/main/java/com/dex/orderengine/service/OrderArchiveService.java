@@ -0,0 +1,132 @@
+package com.dex.orderengine.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the {@code orders} table limited to in-flight and recent orders. Terminal orders older
+ * than the retention window are moved into {@code orders_archive}, which is range-partitioned
+ * by day on {@code created_at}, so status lookups and their indexes only cover the hot set.
+ * Archived orders are still readable by id through {@code OrderRepository#findArchivedById}
+ * and still listed by the history API.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveService {
+
+    private static final int RETENTION_DAYS = 7;
+    private static final int PARTITIONS_AHEAD_DAYS = 3;
+    private static final int ARCHIVE_BATCH_SIZE = 5_000;
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private static final String ARCHIVE_TABLE = "orders_archive";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Explicit column list so the move keeps working if the two tables ever differ in column order
+    private static final String ORDER_COLUMNS = "id, token_in, token_out, amount, slippage, order_type, "
+            + "status, selected_dex, executed_price, raydium_quote, meteor_quote, tx_hash, "
+            + "error_message, retry_count, event_version, idempotency_key, created_at, updated_at, completed_at";
+
+    private static final String MOVE_TERMINAL_ORDERS_SQL = """
+            WITH moved AS (
+                DELETE FROM orders
+                WHERE id IN (
+                    SELECT id FROM orders
+                    WHERE status IN ('CONFIRMED', 'FAILED') AND created_at < ?
+                    ORDER BY created_at
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING %1$s)
+            INSERT INTO %2$s (%1$s)
+            SELECT %1$s FROM moved
+            """.formatted(ORDER_COLUMNS, ARCHIVE_TABLE);
+
+    private static final long ARCHIVE_INITIAL_DELAY_MS = 60_000;
+    private static final long ARCHIVE_INTERVAL_MS = 600_000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Large moves run here rather than on the shared scheduler thread, which drives the queue
+    private final ScheduledExecutorService archiver =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("OrderArchiver-"));
+
+    @PostConstruct
+    public void start() {
+        archiver.scheduleWithFixedDelay(this::archiveTerminalOrders,
+                ARCHIVE_INITIAL_DELAY_MS, ARCHIVE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        archiver.shutdownNow();
+        archiver.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Pre-creates one partition per day from the current archival cut-off up to a few days
+     * ahead, so archival never has to wait on DDL and rows never land in the default partition.
+     * The partitioned parent table itself is created by migration V2.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 5 0 * * *")
+    public void createPartitions() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(RETENTION_DAYS + 1L);
+        LocalDate to = today.plusDays(PARTITIONS_AHEAD_DAYS);
+
+        int created = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            String partition = ARCHIVE_TABLE + "_p" + day.format(PARTITION_SUFFIX);
+            try {
+                // Archive partitions are append-only, so pack pages fully
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + ARCHIVE_TABLE
+                        + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')"
+                        + " WITH (fillfactor = 100)");
+                created++;
+            } catch (DataAccessException e) {
+                log.warn("Could not create archive partition {}: {}", partition, e.getMessage());
+            }
+        }
+        log.info("Ensured {} archive partitions from {} to {}", created, from, to);
+    }
+
+    public void archiveTerminalOrders() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(RETENTION_DAYS));
+
+        long archived = 0;
+        try {
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN && !Thread.currentThread().isInterrupted(); batch++) {
+                int moved = jdbcTemplate.update(MOVE_TERMINAL_ORDERS_SQL, cutoff, ARCHIVE_BATCH_SIZE);
+                archived += moved;
+                if (moved < ARCHIVE_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            // A throw would cancel the periodic run; the next one picks up where this stopped
+            log.error("Archiving terminal orders failed after {} rows: {}", archived, e.getMessage());
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} terminal orders created before {}", archived, cutoff);
+        }
+    }
+}
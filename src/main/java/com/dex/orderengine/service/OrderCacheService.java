@@ -0,0 +1,158 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderSnapshot;
+import com.dex.orderengine.model.Order;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Read cache for orders that are in flight or recently finished. The execution pipeline
+ * refreshes an entry after every write, so status polling is served without touching the
+ * database; misses fall through to the repository in {@link OrderExecutionService#getOrder}.
+ */
+@Service
+@Slf4j
+public class OrderCacheService {
+
+    static final int MAX_CACHED_ORDERS = 10_000;
+    static final long ACTIVE_TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+    static final long TERMINAL_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Map<String, CachedOrder> orders = new ConcurrentHashMap<>();
+    // An entry that expires and is cached again gets a new position; the old one is left behind
+    // and skipped, since its insertion number no longer matches the entry's
+    private final Queue<Position> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicLong insertions = new AtomicLong();
+    private final LongSupplier nanoClock;
+
+    public OrderCacheService() {
+        this(System::nanoTime);
+    }
+
+    OrderCacheService(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Caches the order's current state unless a newer event version is already cached, so a
+     * snapshot read from the database cannot overwrite one the pipeline has since written.
+     * Returns the snapshot that ends up cached.
+     */
+    public OrderSnapshot update(Order order) {
+        long ttl = order.getStatus().isTerminal() ? TERMINAL_TTL_NANOS : ACTIVE_TTL_NANOS;
+        CachedOrder candidate = new CachedOrder(toSnapshot(order),
+                order.getEventVersion() == null ? 0 : order.getEventVersion(), nanoClock.getAsLong() + ttl,
+                insertions.incrementAndGet());
+
+        CachedOrder previous = orders.putIfAbsent(order.getId(), candidate);
+        if (previous == null) {
+            insertionOrder.offer(new Position(order.getId(), candidate.insertion));
+            evictOverflow();
+            return candidate.snapshot;
+        }
+        return orders.merge(order.getId(), candidate, (existing, update) -> existing.eventVersion > update.eventVersion
+                ? existing : new CachedOrder(update.snapshot, update.eventVersion, update.expiresAtNanos,
+                existing.insertion)).snapshot;
+    }
+
+    public Optional<OrderSnapshot> get(String orderId) {
+        CachedOrder cached = orders.get(orderId);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.isExpired(nanoClock.getAsLong())) {
+            orders.remove(orderId, cached);
+            return Optional.empty();
+        }
+        return Optional.of(cached.snapshot);
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void evictExpired() {
+        long now = nanoClock.getAsLong();
+        int before = orders.size();
+        orders.values().removeIf(cached -> cached.isExpired(now));
+        insertionOrder.removeIf(position -> !isCurrent(position));
+
+        int evicted = before - orders.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired orders from cache. Cached: {}", evicted, orders.size());
+        }
+    }
+
+    private void evictOverflow() {
+        while (orders.size() > MAX_CACHED_ORDERS) {
+            Position eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            orders.computeIfPresent(eldest.orderId,
+                    (orderId, cached) -> cached.insertion == eldest.insertion ? null : cached);
+        }
+    }
+
+    private boolean isCurrent(Position position) {
+        CachedOrder cached = orders.get(position.orderId);
+        return cached != null && cached.insertion == position.insertion;
+    }
+
+    private OrderSnapshot toSnapshot(Order order) {
+        return OrderSnapshot.builder()
+                .orderId(order.getId())
+                .tokenIn(order.getTokenIn())
+                .tokenOut(order.getTokenOut())
+                .amount(order.getAmount())
+                .slippage(order.getSlippage())
+                .orderType(order.getOrderType())
+                .status(order.getStatus())
+                .selectedDex(order.getSelectedDex())
+                .executedPrice(order.getExecutedPrice())
+                .raydiumQuote(order.getRaydiumQuote())
+                .meteorQuote(order.getMeteorQuote())
+                .txHash(order.getTxHash())
+                .fills(List.copyOf(order.getFills()))
+                .errorMessage(order.getErrorMessage())
+                .createdAt(order.getCreatedAt())
+                .completedAt(order.getCompletedAt())
+                .build();
+    }
+
+    private static final class CachedOrder {
+        private final OrderSnapshot snapshot;
+        private final int eventVersion;
+        private final long expiresAtNanos;
+        private final long insertion;
+
+        private CachedOrder(OrderSnapshot snapshot, int eventVersion, long expiresAtNanos, long insertion) {
+            this.snapshot = snapshot;
+            this.eventVersion = eventVersion;
+            this.expiresAtNanos = expiresAtNanos;
+            this.insertion = insertion;
+        }
+
+        private boolean isExpired(long nowNanos) {
+            return nowNanos - expiresAtNanos > 0;
+        }
+    }
+
+    private static final class Position {
+        private final String orderId;
+        private final long insertion;
+
+        private Position(String orderId, long insertion) {
+            this.orderId = orderId;
+            this.insertion = insertion;
+        }
+    }
+}
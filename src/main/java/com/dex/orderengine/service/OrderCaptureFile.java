@@ -0,0 +1,188 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.VenueDraw;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary format of an order capture: a header followed by a stream of tagged records, in the
+ * order they happened. Request records carry the arrival time relative to the start of the
+ * capture and are written before the engine answers; reply records say how the request was
+ * answered (the order id and status, or the exception the submission threw); outcome records
+ * carry the terminal state of an order, and venue draw records the random numbers the mock
+ * venues used, so a replay can answer with the same responses.
+ */
+public final class OrderCaptureFile {
+
+    static final int MAGIC = 0x4F454352; // "OECR"
+    static final int FORMAT_VERSION = 2;
+
+    static final byte REQUEST = 1;
+    static final byte OUTCOME = 2;
+    static final byte VENUE_DRAW = 3;
+    static final byte REPLY = 4;
+
+    private static final int TAPES = VenueDraw.values().length * DexType.values().length;
+
+    private OrderCaptureFile() {
+    }
+
+    static int tape(VenueDraw draw, DexType dex) {
+        return draw.ordinal() * DexType.values().length + dex.ordinal();
+    }
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());
+    }
+
+    static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a capture. A truncated last record, left by a process that did not shut down
+     * cleanly, is ignored.
+     */
+    public static Capture read(Path path) throws IOException {
+        List<CapturedOrder> orders = new ArrayList<>();
+        Map<Long, CapturedOrder> byRequestId = new HashMap<>();
+        Map<String, Outcome> outcomes = new HashMap<>();
+        double[][] tapes = new double[TAPES][16];
+        int[] tapeLengths = new int[TAPES];
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("unrecognised format");
+            }
+            in.readLong();
+
+            int type;
+            while ((type = in.read()) != -1) {
+                switch (type) {
+                    case REQUEST -> {
+                        long requestId = in.readLong();
+                        CapturedOrder order = readRequest(in);
+                        orders.add(order);
+                        byRequestId.put(requestId, order);
+                    }
+                    case REPLY -> {
+                        CapturedOrder order = byRequestId.remove(in.readLong());
+                        String orderId = readNullable(in);
+                        byte status = in.readByte();
+                        String error = readNullable(in);
+                        if (order != null) {
+                            order.orderId = orderId;
+                            order.acceptedStatus = status < 0 ? null : OrderStatus.values()[status];
+                            order.error = error;
+                        }
+                    }
+                    case OUTCOME -> {
+                        String orderId = in.readUTF();
+                        outcomes.put(orderId, new Outcome(OrderStatus.values()[in.readByte()],
+                                decimal(readNullable(in)), in.readInt()));
+                    }
+                    case VENUE_DRAW -> {
+                        int tape = in.readUnsignedByte();
+                        double value = in.readDouble();
+                        if (tapeLengths[tape] == tapes[tape].length) {
+                            tapes[tape] = Arrays.copyOf(tapes[tape], tapes[tape].length * 2);
+                        }
+                        tapes[tape][tapeLengths[tape]++] = value;
+                    }
+                    default -> throw new IOException("unknown record type " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // Truncated last record; everything before it is intact
+        }
+
+        for (CapturedOrder order : orders) {
+            order.outcome = order.orderId == null ? null : outcomes.get(order.orderId);
+        }
+        for (int i = 0; i < TAPES; i++) {
+            tapes[i] = Arrays.copyOf(tapes[i], tapeLengths[i]);
+        }
+        return new Capture(orders, tapes);
+    }
+
+    private static CapturedOrder readRequest(DataInputStream in) throws IOException {
+        long offsetNanos = in.readLong();
+        OrderRequest request = OrderRequest.builder()
+                .tokenIn(in.readUTF())
+                .tokenOut(in.readUTF())
+                .amount(new BigDecimal(in.readUTF()))
+                .slippage(decimal(readNullable(in)))
+                .build();
+        return new CapturedOrder(offsetNanos, request, readNullable(in));
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static BigDecimal decimal(String value) {
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    static final class Capture {
+        final List<CapturedOrder> orders;
+        // Venue draws per tape(draw, dex), in the order they were taken
+        final double[][] venueDraws;
+
+        private Capture(List<CapturedOrder> orders, double[][] venueDraws) {
+            this.orders = orders;
+            this.venueDraws = venueDraws;
+        }
+    }
+
+    static final class CapturedOrder {
+        final long offsetNanos;
+        final OrderRequest request;
+        final String idempotencyKey;
+        // From the reply record; all null if the process stopped before the request was answered
+        String orderId;
+        // Status of the submit response; FAILED here means the order was rejected on arrival
+        OrderStatus acceptedStatus;
+        // Simple name of the exception the submission threw
+        String error;
+        Outcome outcome;
+
+        private CapturedOrder(long offsetNanos, OrderRequest request, String idempotencyKey) {
+            this.offsetNanos = offsetNanos;
+            this.request = request;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+
+    static final class Outcome {
+        final OrderStatus status;
+        final BigDecimal executedPrice;
+        final int fills;
+
+        Outcome(OrderStatus status, BigDecimal executedPrice, int fills) {
+            this.status = status;
+            this.executedPrice = executedPrice;
+            this.fills = fills;
+        }
+    }
+}
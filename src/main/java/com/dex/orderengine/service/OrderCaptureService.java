@@ -0,0 +1,206 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.VenueDraw;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records production traffic for {@link OrderReplayDriver}: every order request the API
+ * receives and how it was answered, the outcome of every order, and the draws behind every mock
+ * venue response, in the {@link OrderCaptureFile} format. Capture is on when
+ * {@code orders.capture.path} is set; when it is off, each hook is a single null check.
+ */
+@Service
+@Slf4j
+public class OrderCaptureService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path capturePath;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong requestIds = new AtomicLong();
+
+    // Guarded by this; recording lets the hooks skip the lock when capture is off
+    private DataOutputStream out;
+    private volatile boolean recording;
+
+    public OrderCaptureService(@Value("${orders.capture.path:}") String capturePath) {
+        if (capturePath.isBlank()) {
+            this.capturePath = null;
+            return;
+        }
+        this.capturePath = Path.of(capturePath);
+        try {
+            Path parent = this.capturePath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.capturePath), BUFFER_SIZE));
+            OrderCaptureFile.writeHeader(out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open order capture " + capturePath, e);
+        }
+        recording = true;
+        log.info("Capturing order traffic to {}", this.capturePath);
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Records a request as it arrives, before the engine has answered it, so a submission that
+     * throws is captured too. Returns the id to pass to {@link #requestAnswered} or
+     * {@link #requestFailed}, or -1 when capture is off.
+     */
+    public long requestReceived(long arrivalNanos, OrderRequest request, String idempotencyKey) {
+        if (!recording) {
+            return -1;
+        }
+        long requestId = requestIds.incrementAndGet();
+        writeRequest(requestId, arrivalNanos - startNanos, request, idempotencyKey);
+        return requestId;
+    }
+
+    public void requestAnswered(long requestId, OrderResponse response) {
+        if (recording && requestId > 0) {
+            writeReply(requestId, response.getOrderId(), response.getStatus(), null);
+        }
+    }
+
+    public void requestFailed(long requestId, RuntimeException error) {
+        if (recording && requestId > 0) {
+            writeReply(requestId, null, null, error.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Called once an order reaches a terminal status.
+     */
+    public void orderFinished(Order order) {
+        if (recording) {
+            writeOutcome(order);
+        }
+    }
+
+    public void venueDraw(VenueDraw draw, DexType dex, double value) {
+        if (recording) {
+            writeVenueDraw(OrderCaptureFile.tape(draw, dex), value);
+        }
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void flush() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (out == null) {
+            return;
+        }
+        recording = false;
+        try {
+            out.close();
+            log.info("Closed order capture {}", capturePath);
+        } catch (IOException e) {
+            log.error("Could not close order capture {}", capturePath, e);
+        }
+        out = null;
+    }
+
+    private synchronized void writeRequest(long requestId, long offsetNanos, OrderRequest request,
+                                           String idempotencyKey) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeByte(OrderCaptureFile.REQUEST);
+            out.writeLong(requestId);
+            out.writeLong(offsetNanos);
+            out.writeUTF(request.getTokenIn());
+            out.writeUTF(request.getTokenOut());
+            out.writeUTF(request.getAmount().toPlainString());
+            OrderCaptureFile.writeNullable(out,
+                    request.getSlippage() == null ? null : request.getSlippage().toPlainString());
+            OrderCaptureFile.writeNullable(out, idempotencyKey);
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    private synchronized void writeReply(long requestId, String orderId, OrderStatus status, String error) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeByte(OrderCaptureFile.REPLY);
+            out.writeLong(requestId);
+            OrderCaptureFile.writeNullable(out, orderId);
+            out.writeByte(status == null ? -1 : status.ordinal());
+            OrderCaptureFile.writeNullable(out, error);
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    private synchronized void writeOutcome(Order order) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeByte(OrderCaptureFile.OUTCOME);
+            out.writeUTF(order.getId());
+            out.writeByte(order.getStatus().ordinal());
+            OrderCaptureFile.writeNullable(out,
+                    order.getExecutedPrice() == null ? null : order.getExecutedPrice().toPlainString());
+            out.writeInt(order.getFills().size());
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    private synchronized void writeVenueDraw(int tape, double value) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeByte(OrderCaptureFile.VENUE_DRAW);
+            out.writeByte(tape);
+            out.writeDouble(value);
+        } catch (IOException e) {
+            stop(e);
+        }
+    }
+
+    private void stop(IOException e) {
+        log.error("Order capture to {} failed, capture stopped", capturePath, e);
+        recording = false;
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Already failing
+        }
+        out = null;
+    }
+}
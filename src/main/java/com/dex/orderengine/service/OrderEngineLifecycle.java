@@ -0,0 +1,95 @@
+package com.dex.orderengine.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission and graceful shutdown of the engine. When the context closes it stops taking new
+ * orders and dispatching queued ones, gives in-flight orders until the drain deadline to
+ * finish, and checkpoints whatever is left so the next start resumes it without a status scan.
+ */
+@Service
+@Slf4j
+public class OrderEngineLifecycle {
+
+    private static final long DRAIN_POLL_INTERVAL_MS = 50;
+
+    private final OrderQueueService queueService;
+    private final OrderRecoveryService recoveryService;
+    private final EngineCheckpointStore checkpointStore;
+    private final long drainTimeoutMs;
+
+    private volatile boolean accepting = true;
+
+    public OrderEngineLifecycle(OrderQueueService queueService,
+                                OrderRecoveryService recoveryService,
+                                EngineCheckpointStore checkpointStore,
+                                @Value("${orders.lifecycle.drain-timeout-ms:10000}") long drainTimeoutMs) {
+        this.queueService = queueService;
+        this.recoveryService = recoveryService;
+        this.checkpointStore = checkpointStore;
+        this.drainTimeoutMs = drainTimeoutMs;
+    }
+
+    /**
+     * Whether new orders may be submitted and queued orders dispatched.
+     */
+    public boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * How long a client turned away during shutdown should wait before retrying: the drain
+     * timeout, after which the engine has stopped and a restarted one can take the order.
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(drainTimeoutMs + 999));
+    }
+
+    // Runs ahead of the scheduler's own ContextClosedEvent listener, which cancels @Scheduled
+    // tasks: confirmation polling and retries must keep running while in-flight orders finish
+    @EventListener(ContextClosedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void drain() {
+        long startNanos = System.nanoTime();
+        accepting = false;
+        boolean recoveryComplete = recoveryService.stop();
+        log.info("Draining engine: {} orders in flight, {} queued",
+                queueService.getProcessingCount(), queueService.getQueueSize());
+
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        while (queueService.getProcessingCount() > 0 && System.nanoTime() - deadlineNanos < 0) {
+            try {
+                Thread.sleep(DRAIN_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        int unfinished = queueService.getProcessingCount();
+        List<String> remaining = queueService.drainForCheckpoint();
+        if (!recoveryComplete) {
+            // The checkpoint would miss orders recovery had not reached yet
+            log.warn("Recovery had not finished, skipping checkpoint; the next start will scan");
+        } else {
+            try {
+                checkpointStore.write(remaining);
+            } catch (IOException e) {
+                log.error("Could not write engine checkpoint, the next start will scan", e);
+            }
+        }
+
+        log.info("Engine drained in {}ms: {} orders checkpointed, {} of them still in flight at the deadline",
+                (System.nanoTime() - startNanos) / 1_000_000, remaining.size(), unfinished);
+    }
+}
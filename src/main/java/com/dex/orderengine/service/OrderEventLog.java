@@ -0,0 +1,352 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEvent;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only order lifecycle log backed by the {@code order_events} table. Pipeline threads
+ * only enqueue events; a single writer thread drains them and inserts each batch with one
+ * JDBC batch statement, so a transition costs an in-memory offer instead of a row update.
+ * Events become durable within {@link #FLUSH_INTERVAL_MS} of being appended.
+ * <p>
+ * The same batch carries each order's latest status to its {@code orders} row, so queries and
+ * the status counters that read the column see in-flight statuses without folding the log.
+ * <p>
+ * A batch that fails with a transient error is retried up to {@link #MAX_WRITE_ATTEMPTS} times.
+ * Any other failure means some event in it can never be written, so the batch is written again
+ * one event at a time and only the events that still fail are logged and dropped; the writer
+ * always moves on to the next batch.
+ */
+@Service
+@Slf4j
+public class OrderEventLog {
+
+    private static final int QUEUE_CAPACITY = 65_536;
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_WRITE_ATTEMPTS = 5;
+    private static final long FLUSH_INTERVAL_MS = 50;
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final int MAX_DETAIL_LENGTH = 1000;
+
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO order_events (order_id, version, event_type, status, selected_dex, raydium_quote,
+                meteor_quote, executed_price, tx_hash, retry_count, detail, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (order_id, version) DO NOTHING""";
+
+    // Only the status column: the row's other fields stay at its last snapshot, whose event_version
+    // replay starts from. A row with a newer snapshot already has a newer status.
+    private static final String UPDATE_STATUS_SQL = """
+            UPDATE orders SET status = ?, updated_at = ?
+            WHERE id = ? AND COALESCE(event_version, 0) < ?""";
+
+    private static final String SELECT_EVENTS_SQL = """
+            SELECT order_id, version, event_type, status, selected_dex, raydium_quote, meteor_quote,
+                executed_price, tx_hash, retry_count, detail, occurred_at
+            FROM order_events
+            WHERE order_id = ? AND version > ?
+            ORDER BY version""";
+
+    private static final String SELECT_LAST_SUBMISSION_SQL = """
+            SELECT tx_hash, detail
+            FROM order_events
+            WHERE order_id = ? AND event_type = 'SUBMITTED'
+            ORDER BY version DESC
+            LIMIT 1""";
+
+    private static final RowMapper<OrderEvent> EVENT_ROW_MAPPER = (rs, rowNum) -> OrderEvent.builder()
+            .orderId(rs.getString("order_id"))
+            .version(rs.getInt("version"))
+            .type(OrderEventType.valueOf(rs.getString("event_type")))
+            .status(OrderStatus.valueOf(rs.getString("status")))
+            .selectedDex(rs.getString("selected_dex") == null ? null : DexType.valueOf(rs.getString("selected_dex")))
+            .raydiumQuote(rs.getBigDecimal("raydium_quote"))
+            .meteorQuote(rs.getBigDecimal("meteor_quote"))
+            .executedPrice(rs.getBigDecimal("executed_price"))
+            .txHash(rs.getString("tx_hash"))
+            .retryCount(rs.getObject("retry_count", Integer.class))
+            .detail(rs.getString("detail"))
+            .occurredAt(rs.getTimestamp("occurred_at").toLocalDateTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long retryDelayMs;
+
+    private final BlockingQueue<OrderEvent> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public OrderEventLog(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, RETRY_DELAY_MS);
+    }
+
+    OrderEventLog(JdbcTemplate jdbcTemplate, long retryDelayMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retryDelayMs = retryDelayMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "OrderEventWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Assigns the order's next event version and queues the event. Blocks only if the writer
+     * has fallen a full queue behind, which pushes back on the pipeline instead of losing events.
+     */
+    public OrderEvent append(Order order, OrderEventType type, String detail) {
+        int version = (order.getEventVersion() == null ? 0 : order.getEventVersion()) + 1;
+        order.setEventVersion(version);
+
+        OrderEvent event = OrderEvent.builder()
+                .orderId(order.getId())
+                .version(version)
+                .type(type)
+                .status(order.getStatus())
+                .selectedDex(order.getSelectedDex())
+                .raydiumQuote(order.getRaydiumQuote())
+                .meteorQuote(order.getMeteorQuote())
+                .executedPrice(order.getExecutedPrice())
+                .txHash(order.getTxHash())
+                .retryCount(order.getRetryCount())
+                .detail(detail != null && detail.length() > MAX_DETAIL_LENGTH
+                        ? detail.substring(0, MAX_DETAIL_LENGTH) : detail)
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        try {
+            pending.put(event);
+            appendedCount.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while appending {} event for order {}", type, order.getId());
+        }
+        return event;
+    }
+
+    public List<OrderEvent> getEvents(String orderId) {
+        return jdbcTemplate.query(SELECT_EVENTS_SQL, EVENT_ROW_MAPPER, orderId, 0);
+    }
+
+    /**
+     * Transactions broadcast by the order's latest submission. A multi-leg submission lists
+     * every hash in its event detail; a single leg only carries it in the tx hash column.
+     */
+    public List<String> getSubmittedTxHashes(String orderId) {
+        List<List<String>> submissions = jdbcTemplate.query(SELECT_LAST_SUBMISSION_SQL, (rs, rowNum) -> {
+            String detail = rs.getString("detail");
+            return detail != null ? List.of(detail.split(",")) : List.of(rs.getString("tx_hash"));
+        }, orderId);
+        return submissions.isEmpty() ? List.of() : submissions.get(0);
+    }
+
+    /**
+     * Brings a snapshot loaded from the {@code orders} table up to date by folding in the
+     * events appended after it was written.
+     */
+    public Order replay(Order snapshot) {
+        int fromVersion = snapshot.getEventVersion() == null ? 0 : snapshot.getEventVersion();
+        List<OrderEvent> events = jdbcTemplate.query(SELECT_EVENTS_SQL, EVENT_ROW_MAPPER, snapshot.getId(), fromVersion);
+        for (OrderEvent event : events) {
+            apply(snapshot, event);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Events the writer gave up on, either after exhausting its retries or because the
+     * database rejected them outright.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Waits until every event appended so far has been written or dropped, or the timeout expires.
+     */
+    public boolean flush(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long target = appendedCount.get();
+        while (writtenCount.get() + droppedCount.get() < target) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    private void apply(Order order, OrderEvent event) {
+        order.setEventVersion(event.getVersion());
+        order.setStatus(event.getStatus());
+        if (event.getSelectedDex() != null) {
+            order.setSelectedDex(event.getSelectedDex());
+        }
+        if (event.getRaydiumQuote() != null) {
+            order.setRaydiumQuote(event.getRaydiumQuote());
+        }
+        if (event.getMeteorQuote() != null) {
+            order.setMeteorQuote(event.getMeteorQuote());
+        }
+        if (event.getExecutedPrice() != null) {
+            order.setExecutedPrice(event.getExecutedPrice());
+        }
+        if (event.getTxHash() != null) {
+            order.setTxHash(event.getTxHash());
+        }
+        if (event.getRetryCount() != null) {
+            order.setRetryCount(event.getRetryCount());
+        }
+        if (event.getType() == OrderEventType.FAILED) {
+            order.setErrorMessage(event.getDetail());
+        }
+        if (event.getStatus().isTerminal()) {
+            order.setCompletedAt(event.getOccurredAt());
+        }
+    }
+
+    private void writeLoop() {
+        List<OrderEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !pending.isEmpty()) {
+            try {
+                OrderEvent first = pending.poll(FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, MAX_BATCH_SIZE - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<OrderEvent> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insertEvents(batch);
+                writeStatuses(batch);
+                writtenCount.addAndGet(batch.size());
+                return;
+            } catch (TransientDataAccessException | RecoverableDataAccessException e) {
+                if (attempt >= MAX_WRITE_ATTEMPTS || !running) {
+                    log.error("Dropping {} order events after {} failed attempts: {}",
+                            batch.size(), attempt, e.getMessage());
+                    droppedCount.addAndGet(batch.size());
+                    return;
+                }
+                log.warn("Failed to write {} order events, retrying in {}ms: {}",
+                        batch.size(), retryDelayMs, e.getMessage());
+                Thread.sleep(retryDelayMs);
+            } catch (DataAccessException e) {
+                log.error("Failed to write {} order events, writing them one at a time: {}",
+                        batch.size(), e.getMessage());
+                writeEach(batch);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Isolates the events a rejected batch could not write. Inserts are idempotent, so events
+     * that made it in before the batch failed are skipped rather than duplicated.
+     */
+    private void writeEach(List<OrderEvent> batch) {
+        for (OrderEvent event : batch) {
+            List<OrderEvent> single = List.of(event);
+            try {
+                insertEvents(single);
+                writeStatuses(single);
+                writtenCount.incrementAndGet();
+            } catch (DataAccessException e) {
+                log.error("Dropping {} event v{} for order {}: {}",
+                        event.getType(), event.getVersion(), event.getOrderId(), e.getMessage());
+                droppedCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void insertEvents(List<OrderEvent> batch) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setString(1, event.getOrderId());
+            ps.setInt(2, event.getVersion());
+            ps.setString(3, event.getType().name());
+            ps.setString(4, event.getStatus().name());
+            ps.setString(5, event.getSelectedDex() == null ? null : event.getSelectedDex().name());
+            ps.setBigDecimal(6, event.getRaydiumQuote());
+            ps.setBigDecimal(7, event.getMeteorQuote());
+            ps.setBigDecimal(8, event.getExecutedPrice());
+            ps.setString(9, event.getTxHash());
+            if (event.getRetryCount() == null) {
+                ps.setNull(10, Types.INTEGER);
+            } else {
+                ps.setInt(10, event.getRetryCount());
+            }
+            ps.setString(11, event.getDetail());
+            ps.setTimestamp(12, Timestamp.valueOf(event.getOccurredAt()));
+        });
+    }
+
+    /**
+     * Writes the last status each order reached in the batch to its row, one update per order.
+     */
+    private void writeStatuses(List<OrderEvent> batch) {
+        Map<String, OrderEvent> latest = new LinkedHashMap<>();
+        for (OrderEvent event : batch) {
+            if (event.getType().changesStatus()) {
+                latest.put(event.getOrderId(), event);
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, latest.values(), latest.size(), (ps, event) -> {
+            ps.setString(1, event.getStatus().name());
+            ps.setTimestamp(2, Timestamp.valueOf(event.getOccurredAt()));
+            ps.setString(3, event.getOrderId());
+            ps.setInt(4, event.getVersion());
+        });
+    }
+}
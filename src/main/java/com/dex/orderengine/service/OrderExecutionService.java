@@ -1,43 +1,134 @@
 package com.dex.orderengine.service;
 
-import com.dex.orderengine.dto.DexQuote;
-import com.dex.orderengine.dto.ExecutionResult;
 import com.dex.orderengine.dto.OrderRequest;
 import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.dto.OrderSnapshot;
+import com.dex.orderengine.exception.IdempotencyKeyInProgressException;
+import com.dex.orderengine.exception.IdempotencyKeyMismatchException;
+import com.dex.orderengine.exception.InvalidIdempotencyKeyException;
+import com.dex.orderengine.exception.RetryableSubmissionException;
 import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEvent;
+import com.dex.orderengine.model.OrderEventType;
 import com.dex.orderengine.model.OrderStatus;
 import com.dex.orderengine.model.OrderType;
 import com.dex.orderengine.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class OrderExecutionService {
 
-    private static final int MAX_RETRY_COUNT = 3;
-    private static final long INITIAL_RETRY_DELAY_MS = 1000;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+    private static final long ORIGINAL_SUBMISSION_TIMEOUT_SECONDS = 10;
+    private static final long FAILED_ORIGINAL_RETRY_AFTER_SECONDS = 1;
 
     private final OrderRepository orderRepository;
     private final OrderQueueService queueService;
-    private final MockDexRoutingService dexRoutingService;
     private final WebSocketNotificationService notificationService;
+    private final OrderCacheService orderCache;
+    private final OrderEventLog eventLog;
+    private final OrderStatsService statsService;
+    private final OrderLifecycle lifecycle;
+    private final OrderStateMachine stateMachine;
+    private final OrderPipeline pipeline;
+    private final IdempotencyIndex idempotencyIndex;
+    private final OrderEngineLifecycle engineLifecycle;
+
+    /**
+     * Submits an order once per {@code idempotencyKey}: a repeated key gets the response of the
+     * submission that first used it instead of a second order. A null key disables the check.
+     */
+    public OrderResponse submitOrder(OrderRequest request, String idempotencyKey) {
+        // Checked before the key is claimed so a retry after the restart is not answered with this
+        if (!engineLifecycle.isAccepting()) {
+            throw new RetryableSubmissionException("Engine is shutting down, please retry",
+                    engineLifecycle.getRetryAfterSeconds());
+        }
+        if (idempotencyKey == null) {
+            return createOrder(request, null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+
+        Optional<CompletableFuture<OrderResponse>> original = idempotencyIndex.claim(idempotencyKey, request);
+        if (original.isPresent()) {
+            log.info("Replaying response for Idempotency-Key {}", idempotencyKey);
+            return awaitOriginal(original.get());
+        }
+
+        // Every path that does not complete the key releases it, or waiters would block on it forever
+        try {
+            OrderResponse response;
+            try {
+                response = createOrder(request, idempotencyKey);
+            } catch (DataIntegrityViolationException e) {
+                // The key predates this index entry (restart or eviction); the unique constraint caught
+                // it. Without a row carrying the key, some other constraint failed.
+                Order stored = orderRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+                if (!IdempotencyIndex.sameRequest(toRequest(stored), request)) {
+                    throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different request");
+                }
+                response = getOrder(stored.getId()).orElseThrow(() -> e);
+                log.info("Replaying stored order {} for Idempotency-Key {}", response.getOrderId(), idempotencyKey);
+            }
+            if (response.getStatus() == OrderStatus.FAILED) {
+                // Rejected on arrival (queue full): the rejection is temporary, so it must not
+                // be replayed to a client that retries with the same key
+                idempotencyIndex.release(idempotencyKey,
+                        new RetryableSubmissionException(response.getMessage(), FAILED_ORIGINAL_RETRY_AFTER_SECONDS));
+            } else {
+                idempotencyIndex.complete(idempotencyKey, response);
+            }
+            return response;
+        } catch (RuntimeException e) {
+            idempotencyIndex.release(idempotencyKey, e);
+            throw e;
+        }
+    }
+
+    private OrderResponse awaitOriginal(CompletableFuture<OrderResponse> original) {
+        try {
+            return original.get(ORIGINAL_SUBMISSION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException e) {
+            // The failed original released the key, so the same request can be sent again right away
+            throw new RetryableSubmissionException("The request with this Idempotency-Key failed, please retry",
+                    FAILED_ORIGINAL_RETRY_AFTER_SECONDS, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RetryableSubmissionException("Interrupted waiting for the original request",
+                    FAILED_ORIGINAL_RETRY_AFTER_SECONDS, e);
+        }
+    }
 
-    @Transactional
-    public OrderResponse submitOrder(OrderRequest request) {
-        log.info("Submitting new market order: {} {} -> {}",
-                request.getAmount(), request.getTokenIn(), request.getTokenOut());
+    private static OrderRequest toRequest(Order order) {
+        return OrderRequest.builder()
+                .tokenIn(order.getTokenIn())
+                .tokenOut(order.getTokenOut())
+                .amount(order.getAmount())
+                .slippage(order.getSlippage())
+                .build();
+    }
 
+    // Not transactional: the row must be committed before the pipeline and the async
+    // snapshot writer can see the order
+    private OrderResponse createOrder(OrderRequest request, String idempotencyKey) {
         Order order = Order.builder()
                 .tokenIn(request.getTokenIn())
                 .tokenOut(request.getTokenOut())
@@ -46,16 +137,24 @@ public class OrderExecutionService {
                 .orderType(OrderType.MARKET)
                 .status(OrderStatus.PENDING)
                 .retryCount(0)
+                .eventVersion(0)
+                .idempotencyKey(idempotencyKey)
                 .build();
 
         order = orderRepository.save(order);
-        log.info("Order created with ID: {}", order.getId());
+        stateMachine.enter(order);
+        lifecycle.record(order, OrderEventType.CREATED, null);
 
         boolean queued = queueService.enqueue(order);
         if (!queued) {
-            order.setStatus(OrderStatus.FAILED);
+            if (idempotencyKey != null) {
+                // Cleared before the FAILED snapshot is queued, which then writes the row without it
+                order.setIdempotencyKey(null);
+                orderRepository.clearIdempotencyKey(order.getId());
+            }
+            stateMachine.transition(order, OrderStatus.FAILED);
             order.setErrorMessage("Queue is full, please try again later");
-            orderRepository.save(order);
+            lifecycle.record(order, OrderEventType.FAILED, order.getErrorMessage());
 
             return OrderResponse.builder()
                     .orderId(order.getId())
@@ -64,6 +163,7 @@ public class OrderExecutionService {
                     .build();
         }
 
+        statsService.recordSubmitted();
         notificationService.notifyOrderStatus(order.getId(), OrderStatus.PENDING,
                 "Order received and queued for execution");
 
@@ -80,154 +180,54 @@ public class OrderExecutionService {
                 .build();
     }
 
+    /**
+     * Hands every order that fits in the free processing slots to the configured
+     * {@link OrderPipeline}; the pipeline returns immediately, so this never blocks on execution.
+     */
     @Scheduled(fixedDelay = 100)
     public void processQueue() {
-        String orderId = queueService.pollNext();
-        if (orderId != null) {
-            executeOrderAsync(orderId);
-        }
-    }
-
-    @Async("orderExecutor")
-    public void executeOrderAsync(String orderId) {
-        try {
-            Optional<Order> optOrder = orderRepository.findById(orderId);
+        String orderId;
+        while (engineLifecycle.isAccepting() && pipeline.canAccept() && (orderId = queueService.pollNext()) != null) {
+            // Queued orders are held in memory by the queue; only fall back to a lookup
+            // for ids that were enqueued without their entity
+            Optional<Order> optOrder = loadOrder(orderId);
             if (optOrder.isEmpty()) {
                 log.error("Order not found: {}", orderId);
                 queueService.markFailed(orderId);
-                return;
+                continue;
             }
-
-            Order order = optOrder.get();
-            executeOrder(order);
-
-        } catch (Exception e) {
-            log.error("Error executing order {}: {}", orderId, e.getMessage(), e);
-            handleExecutionFailure(orderId, e.getMessage());
+            pipeline.execute(optOrder.get());
         }
     }
 
-    private void executeOrder(Order order) {
-        try {
-            order.setStatus(OrderStatus.ROUTING);
-            orderRepository.save(order);
-            notificationService.notifyOrderStatus(order.getId(), OrderStatus.ROUTING,
-                    "Fetching quotes from Raydium and Meteora");
-
-            CompletableFuture<DexQuote> raydiumFuture = dexRoutingService.getRaydiumQuote(
-                    order.getTokenIn(), order.getTokenOut(), order.getAmount());
-            CompletableFuture<DexQuote> meteoraFuture = dexRoutingService.getMeteorQuote(
-                    order.getTokenIn(), order.getTokenOut(), order.getAmount());
-
-            DexQuote raydiumQuote = raydiumFuture.get();
-            DexQuote meteoraQuote = meteoraFuture.get();
-
-            order.setRaydiumQuote(raydiumQuote.getPrice());
-            order.setMeteorQuote(meteoraQuote.getPrice());
-
-            DexQuote bestQuote = dexRoutingService.selectBestQuote(raydiumQuote, meteoraQuote);
-            order.setSelectedDex(bestQuote.getDexType());
-            orderRepository.save(order);
-
-            notificationService.notifyRouting(order.getId(),
-                    raydiumQuote.getPrice(), meteoraQuote.getPrice(), bestQuote.getDexType());
-
-            order.setStatus(OrderStatus.BUILDING);
-            orderRepository.save(order);
-            notificationService.notifyOrderStatus(order.getId(), OrderStatus.BUILDING,
-                    "Building transaction for " + bestQuote.getDexType().name());
-
-            Thread.sleep(500);
-
-            order.setStatus(OrderStatus.SUBMITTED);
-            orderRepository.save(order);
-            notificationService.notifyOrderStatus(order.getId(), OrderStatus.SUBMITTED,
-                    "Transaction submitted to " + bestQuote.getDexType().name());
-
-            ExecutionResult result = dexRoutingService.executeSwap(
-                    bestQuote.getDexType(), order, bestQuote);
-
-            if (result.isSuccess()) {
-                order.setStatus(OrderStatus.CONFIRMED);
-                order.setExecutedPrice(result.getExecutedPrice());
-                order.setTxHash(result.getTxHash());
-                order.setCompletedAt(LocalDateTime.now());
-                orderRepository.save(order);
-
-                notificationService.notifyConfirmed(order);
-                queueService.markCompleted(order.getId());
-
-                log.info("Order {} executed successfully. TxHash: {}", order.getId(), result.getTxHash());
-            } else {
-                handleRetry(order, result.getErrorMessage());
-            }
-
-        } catch (Exception e) {
-            log.error("Error during order execution: {}", e.getMessage(), e);
-            handleRetry(order, e.getMessage());
-        }
-    }
-
-    private void handleRetry(Order order, String errorMessage) {
-        order.setRetryCount(order.getRetryCount() + 1);
-
-        if (order.getRetryCount() >= MAX_RETRY_COUNT) {
-            order.setStatus(OrderStatus.FAILED);
-            order.setErrorMessage(errorMessage);
-            order.setCompletedAt(LocalDateTime.now());
-            orderRepository.save(order);
-
-            notificationService.notifyFailed(order.getId(), errorMessage);
-            queueService.markFailed(order.getId());
-
-            log.error("Order {} failed after {} retries: {}",
-                    order.getId(), MAX_RETRY_COUNT, errorMessage);
-        } else {
-            long delay = INITIAL_RETRY_DELAY_MS * (long) Math.pow(2, order.getRetryCount() - 1);
-            log.info("Retrying order {} (attempt {}/{}) after {}ms",
-                    order.getId(), order.getRetryCount(), MAX_RETRY_COUNT, delay);
-
-            order.setStatus(OrderStatus.PENDING);
-            orderRepository.save(order);
-
-            try {
-                Thread.sleep(delay);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-
-            notificationService.notifyOrderStatus(order.getId(), OrderStatus.PENDING,
-                    "Retrying... (attempt " + order.getRetryCount() + "/" + MAX_RETRY_COUNT + ")");
-
-            queueService.enqueue(order);
-        }
-    }
-
-    private void handleExecutionFailure(String orderId, String errorMessage) {
-        Optional<Order> optOrder = orderRepository.findById(orderId);
-        if (optOrder.isPresent()) {
-            Order order = optOrder.get();
-            handleRetry(order, errorMessage);
-        } else {
-            queueService.markFailed(orderId);
+    private Optional<Order> loadOrder(String orderId) {
+        // Queued orders are held in memory by the queue and are always current
+        Order active = queueService.getActiveOrder(orderId);
+        if (active != null) {
+            return Optional.of(active);
         }
+        return orderRepository.findById(orderId).map(eventLog::replay);
     }
 
     public Optional<OrderResponse> getOrder(String orderId) {
+        Optional<OrderSnapshot> cached = orderCache.get(orderId);
+        if (cached.isPresent()) {
+            return cached.map(this::mapToResponse);
+        }
         return orderRepository.findById(orderId)
+                .map(order -> order.getStatus().isTerminal() ? order : eventLog.replay(order))
+                .or(() -> orderRepository.findArchivedById(orderId))
+                .map(orderCache::update)
                 .map(this::mapToResponse);
     }
 
-    public List<OrderResponse> getRecentOrders() {
-        return orderRepository.findTop100ByOrderByCreatedAtDesc()
-                .stream()
-                .map(this::mapToResponse)
-                .toList();
+    public List<OrderEvent> getOrderEvents(String orderId) {
+        return eventLog.getEvents(orderId);
     }
 
-    private OrderResponse mapToResponse(Order order) {
+    private OrderResponse mapToResponse(OrderSnapshot order) {
         return OrderResponse.builder()
-                .orderId(order.getId())
+                .orderId(order.getOrderId())
                 .tokenIn(order.getTokenIn())
                 .tokenOut(order.getTokenOut())
                 .amount(order.getAmount())
@@ -239,6 +239,7 @@ public class OrderExecutionService {
                 .raydiumQuote(order.getRaydiumQuote())
                 .meteorQuote(order.getMeteorQuote())
                 .txHash(order.getTxHash())
+                .fills(order.getFills())
                 .errorMessage(order.getErrorMessage())
                 .createdAt(order.getCreatedAt())
                 .completedAt(order.getCompletedAt())
@@ -0,0 +1,105 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderHistoryFilter;
+import com.dex.orderengine.dto.OrderHistoryPage;
+import com.dex.orderengine.dto.OrderSummary;
+import com.dex.orderengine.exception.InvalidCursorException;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderHistoryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int RECENT_ORDERS_LIMIT = 100;
+    private static final String CURSOR_SEPARATOR = "|";
+
+    private final OrderRepository orderRepository;
+
+    @Transactional(readOnly = true)
+    public OrderHistoryPage getHistory(OrderHistoryFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        LocalDateTime afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String decoded = decodeCursor(cursor);
+            int separator = decoded.indexOf(CURSOR_SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException();
+            }
+            try {
+                afterCreatedAt = LocalDateTime.parse(decoded.substring(0, separator));
+            } catch (DateTimeParseException e) {
+                throw new InvalidCursorException();
+            }
+            afterId = decoded.substring(separator + 1);
+        }
+
+        // Read one extra row to learn whether another page exists without a COUNT query
+        List<OrderSummary> rows = orderRepository.findHistory(filter, afterCreatedAt, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<OrderSummary> orders = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummary last = orders.get(orders.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getOrderId());
+        }
+
+        return OrderHistoryPage.builder()
+                .orders(List.copyOf(orders))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderSummary> getRecentOrders() {
+        return orderRepository.findHistory(new OrderHistoryFilter(), null, null, RECENT_ORDERS_LIMIT);
+    }
+
+    /**
+     * Order counts per status from the trigger-maintained counter table, so dashboards do not
+     * scan the orders table. Terminal statuses include archived orders.
+     */
+    @Transactional(readOnly = true)
+    public Map<OrderStatus, Long> getStatusCounts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : orderRepository.sumStatusCounts()) {
+            counts.put(OrderStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, String orderId) {
+        String raw = createdAt + CURSOR_SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.ExecutionResult;
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderFill;
+import com.dex.orderengine.model.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Order state transitions and their side effects (event log, read cache, snapshots,
+ * notifications, stats and queue bookkeeping), shared by every {@link OrderPipeline}.
+ * None of these methods block, so they can be called from event-loop threads.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderLifecycle {
+
+    private static final int MAX_RETRY_COUNT = 3;
+    private static final long INITIAL_RETRY_DELAY_MS = 1000;
+    private static final int SNAPSHOT_INTERVAL_EVENTS = 8;
+
+    private final OrderQueueService queueService;
+    private final WebSocketNotificationService notificationService;
+    private final OrderCacheService orderCache;
+    private final OrderEventLog eventLog;
+    private final OrderStatsService statsService;
+    private final OrderSnapshotWriter snapshotWriter;
+    private final OrderTraceLog trace;
+    private final OrderStateMachine stateMachine;
+    private final OrderCaptureService capture;
+    private final OrderReplayWatcher replayWatcher;
+
+    public void startRouting(Order order) {
+        stateMachine.transition(order, OrderStatus.ROUTING);
+        record(order, OrderEventType.ROUTING_STARTED, null);
+        notificationService.notifyOrderStatus(order.getId(), OrderStatus.ROUTING,
+                "Fetching quotes from Raydium and Meteora");
+    }
+
+    public void routeSelected(Order order, RoutePlan plan) {
+        // A venue skipped by its circuit breaker has no quote on this attempt
+        order.setRaydiumQuote(null);
+        order.setMeteorQuote(null);
+        for (DexQuote quote : plan.getQuotes()) {
+            switch (quote.getDexType()) {
+                case RAYDIUM -> order.setRaydiumQuote(quote.getPrice());
+                case METEORA -> order.setMeteorQuote(quote.getPrice());
+            }
+        }
+        DexQuote largestLeg = largestLeg(plan.getLegs());
+        order.setSelectedDex(largestLeg.getDexType());
+        record(order, OrderEventType.ROUTE_SELECTED, plan.isSplit() ? describeSplit(plan.getLegs()) : null);
+
+        notificationService.notifyRouting(order.getId(),
+                order.getRaydiumQuote(), order.getMeteorQuote(), largestLeg.getDexType());
+    }
+
+    public void startBuilding(Order order) {
+        stateMachine.transition(order, OrderStatus.BUILDING);
+        record(order, OrderEventType.BUILDING_STARTED, null);
+        notificationService.notifyOrderStatus(order.getId(), OrderStatus.BUILDING,
+                "Building transaction for " + order.getSelectedDex().name());
+    }
+
+    public void submitted(Order order, List<String> txHashes) {
+        stateMachine.transition(order, OrderStatus.SUBMITTED);
+        order.setTxHash(txHashes.get(0));
+        record(order, OrderEventType.SUBMITTED, txHashes.size() > 1 ? String.join(",", txHashes) : null);
+        notificationService.notifyOrderStatus(order.getId(), OrderStatus.SUBMITTED,
+                txHashes.size() > 1
+                        ? txHashes.size() + " transactions submitted"
+                        : "Transaction submitted to " + order.getSelectedDex().name());
+    }
+
+    /**
+     * Adds a landed child swap to the order. The fill is only carried by the orders row, so
+     * a snapshot is always written; a recovered order then never re-executes a landed leg.
+     */
+    public void filled(Order order, ExecutionResult result) {
+        order.getFills().add(OrderFill.builder()
+                .dex(result.getDex())
+                .amountIn(result.getAmountIn())
+                .outputAmount(result.getOutputAmount())
+                .executedPrice(result.getExecutedPrice())
+                .txHash(result.getTxHash())
+                .build());
+        eventLog.append(order, OrderEventType.FILLED,
+                result.getDex() + " " + result.getAmountIn() + " @ " + result.getExecutedPrice());
+        snapshotWriter.write(order);
+        orderCache.update(order);
+    }
+
+    /**
+     * Completes an order whose fills cover its amount. The executed price is the
+     * amount-weighted average over all fills; the transaction shown is the largest fill's.
+     */
+    public void confirmed(Order order) {
+        BigDecimal amountIn = BigDecimal.ZERO;
+        BigDecimal notional = BigDecimal.ZERO;
+        OrderFill largest = null;
+        for (OrderFill fill : order.getFills()) {
+            amountIn = amountIn.add(fill.getAmountIn());
+            notional = notional.add(fill.getAmountIn().multiply(fill.getExecutedPrice()));
+            if (largest == null || fill.getAmountIn().compareTo(largest.getAmountIn()) > 0) {
+                largest = fill;
+            }
+        }
+
+        stateMachine.transition(order, OrderStatus.CONFIRMED);
+        order.setExecutedPrice(notional.divide(amountIn, 6, RoundingMode.HALF_UP));
+        order.setSelectedDex(largest.getDex());
+        order.setTxHash(largest.getTxHash());
+        order.setCompletedAt(LocalDateTime.now());
+        record(order, OrderEventType.CONFIRMED, null);
+
+        statsService.recordConfirmed();
+        notificationService.notifyConfirmed(order);
+        queueService.markCompleted(order.getId());
+        capture.orderFinished(order);
+        replayWatcher.orderFinished(order);
+    }
+
+    /**
+     * Counts a failed attempt. Returns the back-off in milliseconds after which the pipeline
+     * should call {@link #requeue}, or {@code -1} if the order has run out of retries and
+     * has been marked FAILED.
+     */
+    public long retryOrFail(Order order, String errorMessage) {
+        order.setRetryCount(order.getRetryCount() + 1);
+
+        if (order.getRetryCount() >= MAX_RETRY_COUNT) {
+            fail(order, errorMessage);
+            log.error("Order {} failed after {} retries: {}",
+                    order.getId(), MAX_RETRY_COUNT, errorMessage);
+            return -1;
+        }
+
+        long delay = INITIAL_RETRY_DELAY_MS * (long) Math.pow(2, order.getRetryCount() - 1);
+        log.info("Retrying order {} (attempt {}/{}) after {}ms",
+                order.getId(), order.getRetryCount(), MAX_RETRY_COUNT, delay);
+
+        stateMachine.transition(order, OrderStatus.PENDING);
+        record(order, OrderEventType.RETRY_SCHEDULED, errorMessage);
+        return delay;
+    }
+
+    /**
+     * Ends an order whose completion threw, so it does not keep its processing slot forever.
+     * An order that had already reached a terminal status only gives its slot back.
+     */
+    public void abort(Order order, String errorMessage) {
+        try {
+            if (!order.getStatus().isTerminal()) {
+                fail(order, errorMessage);
+            }
+        } finally {
+            if (queueService.getActiveOrder(order.getId()) != null) {
+                queueService.markFailed(order.getId());
+            }
+        }
+    }
+
+    public void requeue(Order order) {
+        notificationService.notifyOrderStatus(order.getId(), OrderStatus.PENDING,
+                "Retrying... (attempt " + order.getRetryCount() + "/" + MAX_RETRY_COUNT + ")");
+
+        if (!queueService.requeue(order)) {
+            fail(order, "Queue is full, retry could not be scheduled");
+        }
+    }
+
+    /**
+     * Appends the transition to the event log and refreshes the read cache. The event log
+     * writes the new status through to the orders row; the full row is only rewritten as a
+     * snapshot on terminal states and every few events, and anything newer is recovered from
+     * the log by {@link OrderEventLog#replay}.
+     */
+    public void record(Order order, OrderEventType type, String detail) {
+        eventLog.append(order, type, detail);
+        trace.transition(order, type);
+        if (order.getStatus().isTerminal() || order.getEventVersion() % SNAPSHOT_INTERVAL_EVENTS == 0) {
+            snapshotWriter.write(order);
+        }
+        orderCache.update(order);
+    }
+
+    private static DexQuote largestLeg(List<DexQuote> legs) {
+        DexQuote largest = legs.get(0);
+        for (DexQuote leg : legs) {
+            if (leg.getAmountIn().compareTo(largest.getAmountIn()) > 0) {
+                largest = leg;
+            }
+        }
+        return largest;
+    }
+
+    private static String describeSplit(List<DexQuote> legs) {
+        StringBuilder detail = new StringBuilder("Split:");
+        for (DexQuote leg : legs) {
+            detail.append(' ').append(leg.getDexType()).append(' ').append(leg.getAmountIn());
+        }
+        return detail.toString();
+    }
+
+    private void fail(Order order, String errorMessage) {
+        stateMachine.transition(order, OrderStatus.FAILED);
+        order.setErrorMessage(errorMessage);
+        order.setCompletedAt(LocalDateTime.now());
+        record(order, OrderEventType.FAILED, errorMessage);
+
+        statsService.recordFailed();
+        notificationService.notifyFailed(order.getId(), errorMessage);
+        queueService.markFailed(order.getId());
+        capture.orderFinished(order);
+        replayWatcher.orderFinished(order);
+    }
+}
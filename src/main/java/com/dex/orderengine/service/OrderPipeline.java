@@ -0,0 +1,49 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.ShardStats;
+import com.dex.orderengine.dto.StageStats;
+import com.dex.orderengine.model.Order;
+
+import java.util.List;
+
+/**
+ * Runs one dequeued order through routing, building, submission and confirmation.
+ * The implementation is chosen with the {@code orders.engine} property.
+ */
+public interface OrderPipeline {
+
+    /**
+     * Starts executing the order and returns without waiting for it to finish. Outcomes are
+     * reported through {@link OrderLifecycle}.
+     */
+    void execute(Order order);
+
+    /**
+     * Takes over an order recovered in SUBMITTED. Its swaps were already broadcast, so it waits
+     * for {@code txHashes} through {@link ConfirmationTracker} instead of being routed again,
+     * and a failed leg is retried like any other submission.
+     */
+    void awaitConfirmation(Order order, List<String> txHashes);
+
+    /**
+     * Whether {@link #execute} can take another order right now without blocking the caller.
+     * Checked before each dequeue so a saturated engine leaves orders in the admission queue.
+     */
+    default boolean canAccept() {
+        return true;
+    }
+
+    /**
+     * Per-stage queue and worker metrics, for engines that run the lifecycle in separate stages.
+     */
+    default List<StageStats> getStageStats() {
+        return List.of();
+    }
+
+    /**
+     * Per-shard load and skew metrics, for engines that partition orders by token pair.
+     */
+    default List<ShardStats> getShardStats() {
+        return List.of();
+    }
+}
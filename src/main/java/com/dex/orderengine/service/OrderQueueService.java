@@ -3,32 +3,61 @@ package com.dex.orderengine.service;
 import com.dex.orderengine.model.Order;
 import com.dex.orderengine.model.OrderStatus;
 import com.dex.orderengine.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderQueueService {
 
-    private static final int MAX_CONCURRENT_ORDERS = 10;
-    private static final int MAX_QUEUE_SIZE = 100;
+    private final int maxConcurrentOrders;
+    private final int maxQueueSize;
 
-    private final LinkedBlockingQueue<String> orderQueue = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    private final LinkedBlockingQueue<String> orderQueue;
     private final Map<String, Order> activeOrders = new ConcurrentHashMap<>();
     private final AtomicInteger processingCount = new AtomicInteger(0);
 
     private final OrderRepository orderRepository;
+    private final OrderTraceLog trace;
+
+    public OrderQueueService(OrderRepository orderRepository,
+                             OrderTraceLog trace,
+                             @Value("${orders.engine:blocking}") String engine,
+                             @Value("${orders.queue.max-concurrent:0}") int maxConcurrentOrders,
+                             @Value("${orders.queue.capacity:100}") int maxQueueSize) {
+        this.orderRepository = orderRepository;
+        this.trace = trace;
+        this.maxConcurrentOrders = maxConcurrentOrders > 0 ? maxConcurrentOrders : defaultMaxConcurrent(engine);
+        this.maxQueueSize = maxQueueSize;
+        this.orderQueue = new LinkedBlockingQueue<>(maxQueueSize);
+    }
+
+    /**
+     * An order holds its slot from dequeue until it is confirmed or fails, confirmation wait
+     * included, so the limit has to cover what the engine can keep in flight. The blocking
+     * engine ties up an {@code orderExecutor} thread per order; the others admit through
+     * {@link OrderPipeline#canAccept} and only need a safety cap.
+     */
+    private static int defaultMaxConcurrent(String engine) {
+        return switch (engine) {
+            case "reactive", "sharded" -> 1000;
+            case "staged" -> 128;
+            default -> 10;
+        };
+    }
 
     public boolean enqueue(Order order) {
-        if (orderQueue.size() >= MAX_QUEUE_SIZE) {
+        if (orderQueue.size() >= maxQueueSize) {
             log.warn("Queue is full, cannot accept more orders");
             return false;
         }
@@ -37,39 +66,75 @@ public class OrderQueueService {
         boolean added = orderQueue.offer(order.getId());
 
         if (added) {
-            log.info("Order {} added to queue. Queue size: {}, Processing: {}",
-                    order.getId(), orderQueue.size(), processingCount.get());
+            trace.queue(order.getId(), "ENQUEUED", orderQueue.size(), processingCount.get());
         }
 
         return added;
     }
 
     public String pollNext() {
-        if (processingCount.get() >= MAX_CONCURRENT_ORDERS) {
+        if (processingCount.get() >= maxConcurrentOrders) {
             return null;
         }
 
         String orderId = orderQueue.poll();
         if (orderId != null) {
-            processingCount.incrementAndGet();
-            log.debug("Dequeued order {}. Queue size: {}, Processing: {}",
-                    orderId, orderQueue.size(), processingCount.get());
+            int processing = processingCount.incrementAndGet();
+            trace.queue(orderId, "DEQUEUED", orderQueue.size(), processing);
         }
         return orderId;
     }
 
+    /**
+     * Puts an order that is already being processed back in the queue for a retry and frees
+     * its processing slot. Returns false if the queue is full, in which case the slot is kept
+     * and the caller must fail the order.
+     */
+    public boolean requeue(Order order) {
+        // Release the slot first so a poller never sees the order queued and in flight at once
+        processingCount.decrementAndGet();
+        if (!orderQueue.offer(order.getId())) {
+            processingCount.incrementAndGet();
+            log.warn("Queue is full, cannot requeue order {}", order.getId());
+            return false;
+        }
+        trace.queue(order.getId(), "REQUEUED", orderQueue.size(), processingCount.get());
+        return true;
+    }
+
+    /**
+     * Registers an order that resumes in flight without passing through the queue, such as one
+     * recovered while its transactions were awaiting confirmation. It takes a processing slot
+     * like a dequeued order and gives it back the same way.
+     */
+    public void adopt(Order order) {
+        activeOrders.put(order.getId(), order);
+        int processing = processingCount.incrementAndGet();
+        trace.queue(order.getId(), "ADOPTED", orderQueue.size(), processing);
+    }
+
     public void markCompleted(String orderId) {
         activeOrders.remove(orderId);
-        processingCount.decrementAndGet();
-        log.info("Order {} completed. Queue size: {}, Processing: {}",
-                orderId, orderQueue.size(), processingCount.get());
+        int processing = processingCount.decrementAndGet();
+        trace.queue(orderId, "COMPLETED", orderQueue.size(), processing);
     }
 
     public void markFailed(String orderId) {
         activeOrders.remove(orderId);
-        processingCount.decrementAndGet();
-        log.info("Order {} failed. Queue size: {}, Processing: {}",
-                orderId, orderQueue.size(), processingCount.get());
+        int processing = processingCount.decrementAndGet();
+        trace.queue(orderId, "FAILED", orderQueue.size(), processing);
+    }
+
+    /**
+     * Empties the queue for a shutdown checkpoint. Returns the queued orders in dispatch order
+     * followed by any still being processed.
+     */
+    public List<String> drainForCheckpoint() {
+        List<String> queued = new ArrayList<>(orderQueue.size());
+        orderQueue.drainTo(queued);
+        Set<String> orderIds = new LinkedHashSet<>(queued);
+        orderIds.addAll(activeOrders.keySet());
+        return new ArrayList<>(orderIds);
     }
 
     public Order getActiveOrder(String orderId) {
@@ -80,6 +145,10 @@ public class OrderQueueService {
         return orderQueue.size();
     }
 
+    public int getRemainingCapacity() {
+        return orderQueue.remainingCapacity();
+    }
+
     public int getProcessingCount() {
         return processingCount.get();
     }
@@ -88,13 +157,11 @@ public class OrderQueueService {
         return activeOrders.size();
     }
 
-    public Map<String, Object> getQueueStats() {
-        return Map.of(
-                "queueSize", orderQueue.size(),
-                "processingCount", processingCount.get(),
-                "activeOrders", activeOrders.size(),
-                "maxConcurrent", MAX_CONCURRENT_ORDERS,
-                "maxQueueSize", MAX_QUEUE_SIZE
-        );
+    public int getMaxConcurrentOrders() {
+        return maxConcurrentOrders;
+    }
+
+    public int getMaxQueueSize() {
+        return maxQueueSize;
     }
 }
@@ -0,0 +1,216 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.RecoveryStats;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderFill;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.RecoverySource;
+import com.dex.orderengine.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumes orders that were in flight when the engine last stopped. After a clean shutdown
+ * they come from the {@link EngineCheckpointStore} checkpoint; otherwise they are read from
+ * the in-flight partial index in {@code (createdAt, id)} order. Either way they are fed to
+ * the queue only as fast as it has room, so a large backlog is drained over several passes
+ * instead of being dropped. Orders that had already submitted their swaps are not routed
+ * again; they go back to waiting for those transactions.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderRecoveryService {
+
+    private static final int MAX_RECOVERY_BATCH_SIZE = 100;
+    private static final LocalDateTime SCAN_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderRepository orderRepository;
+    private final OrderQueueService queueService;
+    private final OrderCacheService orderCache;
+    private final OrderEventLog eventLog;
+    private final EngineCheckpointStore checkpointStore;
+    private final OrderStateMachine stateMachine;
+    private final OrderLifecycle lifecycle;
+    private final OrderPipeline pipeline;
+
+    // Only orders created before startup are recovered; anything newer was queued by submitOrder.
+    // Taken when the bean is created, before the web server and processQueue are started.
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private LocalDateTime lastCreatedAt = SCAN_START;
+    private String lastId = "";
+    private Deque<String> checkpointBacklog;
+    private RecoverySource source;
+    private boolean recovering;
+    private Long startupTimeMs;
+    private long recoveryStartNanos;
+    private long recoveryTimeMs;
+    private int recoveredCount;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void startRecovery(ApplicationReadyEvent event) {
+        recoveryStartNanos = System.nanoTime();
+        startupTimeMs = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : null;
+
+        checkpointBacklog = checkpointStore.take().map(ArrayDeque::new).orElse(null);
+        source = checkpointBacklog != null ? RecoverySource.CHECKPOINT : RecoverySource.STATUS_SCAN;
+        log.info("Engine started in {}ms, resuming in-flight orders from {}", startupTimeMs, source);
+
+        recovering = true;
+        resumeRecovery();
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public synchronized void resumeRecovery() {
+        if (!recovering) {
+            return;
+        }
+
+        boolean complete = source == RecoverySource.CHECKPOINT ? resumeFromCheckpoint() : resumeFromScan();
+        if (complete) {
+            recovering = false;
+            recoveryTimeMs = (System.nanoTime() - recoveryStartNanos) / 1_000_000;
+            log.info("Recovery complete: {} in-flight orders resumed from {} in {}ms",
+                    recoveredCount, source, recoveryTimeMs);
+        }
+    }
+
+    /**
+     * Stops recovery for a shutdown. Returns whether it had already finished, i.e. whether
+     * every order from before this start is now either done or in the queue.
+     */
+    public synchronized boolean stop() {
+        boolean complete = source != null && !recovering;
+        recovering = false;
+        return complete;
+    }
+
+    public synchronized RecoveryStats getStats() {
+        return RecoveryStats.builder()
+                .source(source)
+                .recovering(recovering)
+                .recoveredOrders(recoveredCount)
+                .startupTimeMs(startupTimeMs)
+                .recoveryTimeMs(recovering
+                        ? (System.nanoTime() - recoveryStartNanos) / 1_000_000
+                        : recoveryTimeMs)
+                .build();
+    }
+
+    private boolean resumeFromCheckpoint() {
+        int capacity = Math.min(queueService.getRemainingCapacity(), MAX_RECOVERY_BATCH_SIZE);
+        while (capacity > 0 && !checkpointBacklog.isEmpty()) {
+            List<String> orderIds = checkpointBacklog.stream().limit(capacity).toList();
+            Map<String, Order> orders = new HashMap<>();
+            orderRepository.findAllById(orderIds).forEach(order -> orders.put(order.getId(), order));
+
+            for (String orderId : orderIds) {
+                // Missing ids were archived or removed since the checkpoint
+                Order order = orders.get(orderId);
+                if (order != null && !requeue(order)) {
+                    return false;
+                }
+                checkpointBacklog.poll();
+            }
+            capacity = Math.min(queueService.getRemainingCapacity(), MAX_RECOVERY_BATCH_SIZE);
+        }
+        return checkpointBacklog.isEmpty();
+    }
+
+    private boolean resumeFromScan() {
+        int capacity = Math.min(queueService.getRemainingCapacity(), MAX_RECOVERY_BATCH_SIZE);
+        while (capacity > 0) {
+            List<Order> batch = orderRepository.findInFlightOrders(
+                    startedAt, lastCreatedAt, lastId, Limit.of(capacity));
+
+            for (Order order : batch) {
+                if (!requeue(order)) {
+                    return false;
+                }
+            }
+
+            if (batch.size() < capacity) {
+                return true;
+            }
+            capacity = Math.min(queueService.getRemainingCapacity(), MAX_RECOVERY_BATCH_SIZE);
+        }
+        return false;
+    }
+
+    private boolean requeue(Order order) {
+        if (queueService.getActiveOrder(order.getId()) != null) {
+            // Already queued or running in this process
+            advanceCursor(order);
+            return true;
+        }
+        // Fold in events written after the last snapshot so retry counts and event versions
+        // continue where they left off
+        eventLog.replay(order);
+        if (order.getStatus().isTerminal()) {
+            // Finished before the restart but the terminal snapshot was never written
+            orderRepository.save(order);
+            advanceCursor(order);
+            return true;
+        }
+        if (order.getStatus() == OrderStatus.SUBMITTED) {
+            resumeSubmitted(order);
+            advanceCursor(order);
+            recoveredCount++;
+            return true;
+        }
+        // Nothing was broadcast yet, so the order is routed again from scratch. Restored rather
+        // than transitioned: whatever the order was doing did not survive the restart
+        order.setStatus(OrderStatus.PENDING);
+        stateMachine.enter(order);
+        if (!queueService.enqueue(order)) {
+            return false;
+        }
+        eventLog.append(order, OrderEventType.RECOVERED, null);
+        orderCache.update(order);
+        advanceCursor(order);
+        recoveredCount++;
+        return true;
+    }
+
+    /**
+     * Waits again for the transactions of an order's last submission. Routing it again would
+     * broadcast a second swap while the first may still land.
+     */
+    private void resumeSubmitted(Order order) {
+        List<String> outstanding = new ArrayList<>(eventLog.getSubmittedTxHashes(order.getId()));
+        for (OrderFill fill : order.getFills()) {
+            outstanding.remove(fill.getTxHash());
+        }
+
+        stateMachine.enter(order);
+        queueService.adopt(order);
+        eventLog.append(order, OrderEventType.RECOVERED, "Awaiting " + outstanding.size() + " submitted transactions");
+        orderCache.update(order);
+
+        if (outstanding.isEmpty()) {
+            // Every leg had landed; only the confirmation was lost
+            lifecycle.confirmed(order);
+        } else {
+            pipeline.awaitConfirmation(order, outstanding);
+        }
+    }
+
+    private void advanceCursor(Order order) {
+        lastCreatedAt = order.getCreatedAt();
+        lastId = order.getId();
+    }
+}
@@ -0,0 +1,337 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.model.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Re-injects a capture written by {@link OrderCaptureService} into this engine once it is up,
+ * through {@link OrderExecutionService#submitOrder} from a pool of client threads, and reports
+ * throughput, submit and completion latency percentiles, and how each order's outcome compares
+ * with the one it had when captured. The mock venues replay the captured draws, see
+ * {@link VenueSimulator}.
+ * <p>
+ * {@code orders.replay.speed} scales the captured inter-arrival times: 1 keeps the original
+ * pacing, 2 halves it, and 0 submits as fast as the clients can.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.replay.path")
+@Slf4j
+public class OrderReplayDriver {
+
+    private final OrderExecutionService executionService;
+    private final OrderReplayWatcher watcher;
+    private final Path replayPath;
+    private final double speed;
+    private final int clients;
+    private final long timeoutMs;
+    private final Path reportPath;
+    private final boolean exitOnFinish;
+
+    public OrderReplayDriver(OrderExecutionService executionService,
+                             OrderReplayWatcher watcher,
+                             @Value("${orders.replay.path}") String replayPath,
+                             @Value("${orders.replay.speed:1.0}") double speed,
+                             @Value("${orders.replay.clients:8}") int clients,
+                             @Value("${orders.replay.timeout-ms:120000}") long timeoutMs,
+                             @Value("${orders.replay.report-path:logs/replay-report.txt}") String reportPath,
+                             @Value("${orders.replay.exit-on-finish:false}") boolean exitOnFinish) {
+        this.executionService = executionService;
+        this.watcher = watcher;
+        this.replayPath = Path.of(replayPath);
+        this.speed = speed;
+        this.clients = clients;
+        this.timeoutMs = timeoutMs;
+        this.reportPath = Path.of(reportPath);
+        this.exitOnFinish = exitOnFinish;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        new Thread(() -> run(event.getApplicationContext()), "OrderReplayDriver").start();
+    }
+
+    // With exit-on-finish the process exits 1 if the capture could not be read or the report
+    // written, so a scripted replay does not mistake a failed run for a clean one
+    private void run(ConfigurableApplicationContext context) {
+        int exitCode = 0;
+        try {
+            List<OrderCaptureFile.CapturedOrder> captured =
+                    new ArrayList<>(OrderCaptureFile.read(replayPath).orders);
+            captured.sort(Comparator.comparingLong(order -> order.offsetNanos));
+            log.info("Replaying {} orders from {} at {} with {} clients",
+                    captured.size(), replayPath, speedLabel(), clients);
+
+            String report = replay(captured);
+            log.info("Order replay finished\n{}", report);
+            Files.createDirectories(reportPath.toAbsolutePath().getParent());
+            Files.writeString(reportPath, report);
+        } catch (IOException | RuntimeException e) {
+            log.error("Order replay of {} failed", replayPath, e);
+            exitCode = 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (exitOnFinish) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private String replay(List<OrderCaptureFile.CapturedOrder> captured) throws InterruptedException {
+        int count = captured.size();
+        List<ReplayedOrder> results = new ArrayList<>(count);
+        CompletableFuture<?>[] finished = new CompletableFuture[count];
+        // Keys are scoped to this run so they do not collide with the captured orders' rows
+        String keyPrefix = "replay-" + Long.toString(System.currentTimeMillis(), 36) + "-";
+        long firstOffset = count == 0 ? 0 : captured.get(0).offsetNanos;
+
+        ExecutorService pool = Executors.newFixedThreadPool(clients, new CustomizableThreadFactory("OrderReplayClient-"));
+        long startNanos = System.nanoTime();
+        try {
+            for (int i = 0; i < count; i++) {
+                OrderCaptureFile.CapturedOrder order = captured.get(i);
+                if (speed > 0) {
+                    long dueNanos = startNanos + (long) ((order.offsetNanos - firstOffset) / speed);
+                    long waitNanos;
+                    while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(waitNanos);
+                    }
+                }
+                ReplayedOrder result = new ReplayedOrder(order);
+                results.add(result);
+                finished[i] = CompletableFuture.supplyAsync(() -> submit(result, keyPrefix), pool)
+                        .thenCompose(done -> done);
+            }
+            long injectionNanos = System.nanoTime() - startNanos;
+
+            try {
+                CompletableFuture.allOf(finished).get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                log.warn("Replay timed out after {}ms with orders still in flight", timeoutMs);
+            } catch (ExecutionException e) {
+                log.error("Replay client failed", e.getCause());
+            }
+
+            for (ReplayedOrder result : results) {
+                if (result.orderId != null && result.status == null) {
+                    watcher.unwatch(result.orderId);
+                }
+            }
+            return report(results, startNanos, injectionNanos,
+                    count == 0 ? 0 : captured.get(count - 1).offsetNanos - firstOffset);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<Void> submit(ReplayedOrder result, String keyPrefix) {
+        OrderCaptureFile.CapturedOrder captured = result.captured;
+        String key = captured.idempotencyKey == null ? null : keyPrefix + captured.idempotencyKey;
+
+        result.submittedNanos = System.nanoTime();
+        OrderResponse response;
+        try {
+            response = executionService.submitOrder(captured.request, key);
+        } catch (RuntimeException e) {
+            result.ackNanos = System.nanoTime() - result.submittedNanos;
+            result.error = e.getMessage();
+            return CompletableFuture.completedFuture(null);
+        }
+        result.ackNanos = System.nanoTime() - result.submittedNanos;
+        result.orderId = response.getOrderId();
+
+        if (response.getOrderId() == null || response.getStatus() == OrderStatus.FAILED) {
+            result.rejected = true;
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> done = watcher.watch(response.getOrderId())
+                .thenAccept(order -> result.finish(order.getStatus(), order.getExecutedPrice(), order.getFills().size()));
+        // The order may have finished before the watch was registered
+        executionService.getOrder(response.getOrderId())
+                .filter(current -> current.getStatus().isTerminal())
+                .ifPresent(current -> {
+                    watcher.unwatch(current.getOrderId());
+                    result.finish(current.getStatus(), current.getExecutedPrice(),
+                            current.getFills() == null ? 0 : current.getFills().size());
+                });
+        return result.status != null ? CompletableFuture.completedFuture(null) : done;
+    }
+
+    private String report(List<ReplayedOrder> results, long startNanos, long injectionNanos, long capturedSpanNanos) {
+        long[] ackNanos = new long[results.size()];
+        long[] completionNanos = new long[results.size()];
+        int acked = 0;
+        int completed = 0;
+        int rejected = 0;
+        int errors = 0;
+        long lastFinishedNanos = startNanos;
+        Map<String, Integer> outcomes = new TreeMap<>();
+        int outcomeChanges = 0;
+        int fillChanges = 0;
+        List<Double> priceDiffsBps = new ArrayList<>();
+
+        for (ReplayedOrder result : results) {
+            if (result.error != null) {
+                errors++;
+            } else {
+                ackNanos[acked++] = result.ackNanos;
+                if (result.rejected) {
+                    rejected++;
+                }
+            }
+            if (result.status != null) {
+                completionNanos[completed++] = result.finishedNanos - result.submittedNanos;
+                lastFinishedNanos = Math.max(lastFinishedNanos, result.finishedNanos);
+            }
+
+            String before = capturedOutcome(result.captured);
+            String after = replayedOutcome(result);
+            outcomes.merge(before + " -> " + after, 1, Integer::sum);
+            if (!before.equals(after)) {
+                outcomeChanges++;
+            }
+
+            OrderCaptureFile.Outcome original = result.captured.outcome;
+            if (original != null && original.status == OrderStatus.CONFIRMED && result.status == OrderStatus.CONFIRMED) {
+                if (original.fills != result.fills) {
+                    fillChanges++;
+                }
+                if (original.executedPrice != null && result.executedPrice != null
+                        && original.executedPrice.signum() != 0) {
+                    priceDiffsBps.add(result.executedPrice.subtract(original.executedPrice).abs()
+                            .divide(original.executedPrice, MathContext.DECIMAL64)
+                            .doubleValue() * 10_000);
+                }
+            }
+        }
+        long[] ack = Arrays.copyOf(ackNanos, acked);
+        long[] completion = Arrays.copyOf(completionNanos, completed);
+        Arrays.sort(ack);
+        Arrays.sort(completion);
+        double[] priceDiffs = priceDiffsBps.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+
+        StringBuilder report = new StringBuilder();
+        line(report, "Order replay of %s at %s with %d clients", replayPath, speedLabel(), clients);
+        line(report, "Requests:   %d replayed, %d rejected on submit, %d errors, %d finished, %d unfinished",
+                results.size(), rejected, errors, completed, results.size() - completed - rejected - errors);
+        line(report, "Offered:    %.1f req/s over %.1fs (captured %.1f req/s over %.1fs)",
+                rate(results.size(), injectionNanos), injectionNanos / 1e9,
+                rate(results.size(), capturedSpanNanos), capturedSpanNanos / 1e9);
+        line(report, "Throughput: %.1f orders/s finished", rate(completed, lastFinishedNanos - startNanos));
+        line(report, "Submit ms:     p50 %8.2f  p90 %8.2f  p99 %8.2f  max %8.2f",
+                percentileMillis(ack, 0.50), percentileMillis(ack, 0.90), percentileMillis(ack, 0.99),
+                percentileMillis(ack, 1.0));
+        line(report, "Completion ms: p50 %8.2f  p90 %8.2f  p99 %8.2f  max %8.2f",
+                percentileMillis(completion, 0.50), percentileMillis(completion, 0.90),
+                percentileMillis(completion, 0.99), percentileMillis(completion, 1.0));
+        line(report, "Outcomes (captured -> replayed), %d changed:", outcomeChanges);
+        outcomes.forEach((transition, total) -> line(report, "  %-28s %d", transition, total));
+        line(report, "Confirmed in both: %d, fill count changed for %d", priceDiffs.length, fillChanges);
+        if (priceDiffs.length > 0) {
+            line(report, "Price change bps: mean %.2f  p99 %.2f  max %.2f",
+                    Arrays.stream(priceDiffs).average().orElse(0),
+                    priceDiffs[Math.max(0, (int) Math.ceil(priceDiffs.length * 0.99) - 1)],
+                    priceDiffs[priceDiffs.length - 1]);
+        }
+        return report.toString();
+    }
+
+    private static String capturedOutcome(OrderCaptureFile.CapturedOrder captured) {
+        if (captured.error != null) {
+            return "ERROR";
+        }
+        if (captured.outcome != null) {
+            return captured.outcome.status.name();
+        }
+        return captured.acceptedStatus == OrderStatus.FAILED ? "REJECTED" : "UNFINISHED";
+    }
+
+    private static String replayedOutcome(ReplayedOrder result) {
+        if (result.error != null) {
+            return "ERROR";
+        }
+        if (result.rejected) {
+            return "REJECTED";
+        }
+        return result.status == null ? "UNFINISHED" : result.status.name();
+    }
+
+    private String speedLabel() {
+        return speed > 0 ? speed + "x speed" : "maximum speed";
+    }
+
+    private static double rate(int count, long nanos) {
+        return nanos <= 0 ? 0 : count * 1e9 / nanos;
+    }
+
+    private static double percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sortedNanos.length);
+        return sortedNanos[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static void line(StringBuilder report, String format, Object... args) {
+        report.append(String.format(Locale.ROOT, format, args)).append('\n');
+    }
+
+    private static final class ReplayedOrder {
+        private final OrderCaptureFile.CapturedOrder captured;
+        private volatile long submittedNanos;
+        private volatile long ackNanos;
+        private volatile String orderId;
+        private volatile String error;
+        private volatile boolean rejected;
+        private volatile OrderStatus status;
+        private volatile BigDecimal executedPrice;
+        private volatile int fills;
+        private volatile long finishedNanos;
+
+        private ReplayedOrder(OrderCaptureFile.CapturedOrder captured) {
+            this.captured = captured;
+        }
+
+        private synchronized void finish(OrderStatus status, BigDecimal executedPrice, int fills) {
+            if (this.status != null) {
+                return;
+            }
+            this.finishedNanos = System.nanoTime();
+            this.executedPrice = executedPrice;
+            this.fills = fills;
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells {@link OrderReplayDriver} when the orders it submitted finish. It is a bean of its own,
+ * always present, because the lifecycle that reports terminal orders sits below the execution
+ * service the driver submits through; outside a replay nothing is watched and
+ * {@link #orderFinished} is a single empty check.
+ */
+@Component
+public class OrderReplayWatcher {
+
+    private final Map<String, CompletableFuture<Order>> watched = new ConcurrentHashMap<>();
+
+    /**
+     * Completes when the order reaches a terminal status. The caller must check the order's
+     * status after registering, in case it finished first.
+     */
+    public CompletableFuture<Order> watch(String orderId) {
+        return watched.computeIfAbsent(orderId, id -> new CompletableFuture<>());
+    }
+
+    public void unwatch(String orderId) {
+        watched.remove(orderId);
+    }
+
+    /**
+     * Called once an order reaches a terminal status.
+     */
+    public void orderFinished(Order order) {
+        if (watched.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Order> watcher = watched.remove(order.getId());
+        if (watcher != null) {
+            watcher.complete(order);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.ShardStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One shard of {@link ShardedOrderPipeline}: a single thread that is the only writer of the
+ * per-pair state of the token pairs homed on it. Every task for those pairs, including timer
+ * and future continuations, runs here, so that state needs no locks.
+ */
+@Slf4j
+public class OrderShard implements Executor {
+
+    private final int index;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicInteger activePairs = new AtomicInteger();
+    private final AtomicInteger queuedOrders = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    private long lastSampleNanos = System.nanoTime();
+    private long lastCompleted;
+    private long lastBusyNanos;
+    private long pairsMovedOut;
+    private volatile ShardStats stats;
+
+    public OrderShard(int index) {
+        this.index = index;
+        this.executor = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("OrderShard-" + index + "-"));
+        this.stats = ShardStats.builder().shard(index).build();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(() -> run(task));
+    }
+
+    public void schedule(Runnable task, long delayMs) {
+        executor.schedule(() -> run(task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void run(Runnable task) {
+        long startedAt = System.nanoTime();
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Unhandled error on shard {}: {}", index, e.getMessage(), e);
+        } finally {
+            busyNanos.add(System.nanoTime() - startedAt);
+        }
+    }
+
+    public void pairActivated() {
+        activePairs.incrementAndGet();
+    }
+
+    public void pairIdle() {
+        activePairs.decrementAndGet();
+    }
+
+    public void orderQueued() {
+        queuedOrders.incrementAndGet();
+    }
+
+    public void orderDequeued() {
+        queuedOrders.decrementAndGet();
+    }
+
+    public void orderCompleted() {
+        completed.increment();
+    }
+
+    public int getQueuedOrders() {
+        return queuedOrders.get();
+    }
+
+    /**
+     * Work the shard owes right now: one unit per pair with an order in progress plus one per
+     * order waiting behind it.
+     */
+    public int getLoad() {
+        return activePairs.get() + queuedOrders.get();
+    }
+
+    public synchronized void recordPairMovedOut() {
+        pairsMovedOut++;
+    }
+
+    /**
+     * Folds the counters since the previous call into a new {@link ShardStats}. Called on a
+     * fixed interval so rates and utilization cover the same window for every shard.
+     */
+    public synchronized ShardStats sample(int pairs, String hottestPair, double meanLoad) {
+        long now = System.nanoTime();
+        long totalCompleted = completed.sum();
+        long totalBusy = busyNanos.sum();
+        long elapsed = Math.max(1, now - lastSampleNanos);
+        int load = getLoad();
+
+        stats = ShardStats.builder()
+                .shard(index)
+                .pairs(pairs)
+                .activePairs(activePairs.get())
+                .queuedOrders(queuedOrders.get())
+                .completed(totalCompleted)
+                .ordersPerSecond((totalCompleted - lastCompleted) * 1_000_000_000.0 / elapsed)
+                .utilization(Math.min(1.0, (totalBusy - lastBusyNanos) / (double) elapsed))
+                .loadRatio(meanLoad == 0 ? 0 : load / meanLoad)
+                .hottestPair(hottestPair)
+                .pairsMovedOut(pairsMovedOut)
+                .build();
+
+        lastSampleNanos = now;
+        lastCompleted = totalCompleted;
+        lastBusyNanos = totalBusy;
+        return stats;
+    }
+
+    public ShardStats getStats() {
+        return stats;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
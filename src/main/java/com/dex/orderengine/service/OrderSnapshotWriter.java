@@ -0,0 +1,64 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.repository.OrderRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes {@code orders} row snapshots off the pipeline threads. Each order id always maps to
+ * the same single-threaded stripe, so snapshots of one order are saved in the order they
+ * were taken while different orders are saved in parallel.
+ */
+@Service
+@Slf4j
+public class OrderSnapshotWriter {
+
+    private static final int WRITER_STRIPES = 4;
+
+    private final OrderRepository orderRepository;
+    private final ExecutorService[] writers = new ExecutorService[WRITER_STRIPES];
+
+    public OrderSnapshotWriter(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("OrderSnapshotWriter-");
+        for (int i = 0; i < WRITER_STRIPES; i++) {
+            writers[i] = Executors.newSingleThreadExecutor(threadFactory);
+        }
+    }
+
+    public void write(Order order) {
+        // Copy now: the pipeline keeps mutating the live entity while the save is pending
+        Order snapshot = order.toBuilder().fills(new ArrayList<>(order.getFills())).build();
+        writers[Math.floorMod(order.getId().hashCode(), WRITER_STRIPES)].execute(() -> save(snapshot));
+    }
+
+    private void save(Order snapshot) {
+        try {
+            orderRepository.save(snapshot);
+        } catch (DataAccessException e) {
+            log.error("Failed to write snapshot of order {} at event {}: {}",
+                    snapshot.getId(), snapshot.getEventVersion(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService writer : writers) {
+            writer.shutdown();
+        }
+        for (ExecutorService writer : writers) {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Timed out waiting for pending order snapshots to be written");
+            }
+        }
+    }
+}
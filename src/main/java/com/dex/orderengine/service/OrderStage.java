@@ -0,0 +1,118 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.StageStats;
+import com.dex.orderengine.model.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One stage of {@link StagedOrderPipeline}: a fixed set of workers fed by a bounded queue.
+ * {@link #submit} blocks while the queue is full, which stalls the previous stage's worker
+ * and so pushes backpressure upstream instead of dropping or buffering without limit.
+ */
+@Slf4j
+public class OrderStage {
+
+    private final OrderStatus phase;
+    private final int workers;
+    private final int queueCapacity;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder queuedNanos = new LongAdder();
+
+    private long lastSampleNanos = System.nanoTime();
+    private long lastCompleted;
+    private long lastBusyNanos;
+    private long lastQueuedNanos;
+    private volatile StageStats stats;
+
+    public OrderStage(OrderStatus phase, int workers, int queueCapacity) {
+        this.phase = phase;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, queue,
+                new CustomizableThreadFactory("OrderStage-" + phase.name().toLowerCase() + "-"));
+        // Tasks are put straight into the work queue, so every worker has to be running already
+        this.executor.prestartAllCoreThreads();
+        this.stats = StageStats.builder().stage(phase).workers(workers).queueCapacity(queueCapacity).build();
+    }
+
+    public void submit(Runnable task) throws InterruptedException {
+        long enqueuedAt = System.nanoTime();
+        queue.put(() -> run(task, enqueuedAt));
+    }
+
+    public boolean hasCapacity() {
+        return queue.remainingCapacity() > 0;
+    }
+
+    private void run(Runnable task, long enqueuedAt) {
+        long startedAt = System.nanoTime();
+        queuedNanos.add(startedAt - enqueuedAt);
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.error("Unhandled error in {} stage: {}", phase, e.getMessage(), e);
+        } finally {
+            busyNanos.add(System.nanoTime() - startedAt);
+            completed.increment();
+        }
+    }
+
+    /**
+     * Folds the counters since the previous call into a new {@link StageStats}. Called on a
+     * fixed interval so rates and utilization cover the same window for every stage.
+     */
+    public synchronized StageStats sample() {
+        long now = System.nanoTime();
+        long totalCompleted = completed.sum();
+        long totalBusy = busyNanos.sum();
+        long totalQueued = queuedNanos.sum();
+
+        long elapsed = Math.max(1, now - lastSampleNanos);
+        long windowCompleted = totalCompleted - lastCompleted;
+        long windowBusy = totalBusy - lastBusyNanos;
+        long windowQueued = totalQueued - lastQueuedNanos;
+
+        stats = StageStats.builder()
+                .stage(phase)
+                .workers(workers)
+                .activeWorkers(executor.getActiveCount())
+                .queueSize(queue.size())
+                .queueCapacity(queueCapacity)
+                .completed(totalCompleted)
+                .tasksPerSecond(windowCompleted * 1_000_000_000.0 / elapsed)
+                .utilization(Math.min(1.0, windowBusy / ((double) elapsed * workers)))
+                .avgQueueTimeMs(averageMillis(windowQueued, windowCompleted))
+                .avgServiceTimeMs(averageMillis(windowBusy, windowCompleted))
+                .build();
+
+        lastSampleNanos = now;
+        lastCompleted = totalCompleted;
+        lastBusyNanos = totalBusy;
+        lastQueuedNanos = totalQueued;
+        return stats;
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+    }
+
+    public StageStats getStats() {
+        return stats;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.StateLatencyStats;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Validates order status transitions against {@link OrderStatus#canTransitionTo} and times how
+ * long orders spend in each status. A transition is a table lookup, a clock read and a few
+ * atomic increments; it allocates nothing unless it is rejected.
+ */
+@Service
+public class OrderStateMachine {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final StateHistogram[] histograms = new StateHistogram[STATUSES.length];
+
+    public OrderStateMachine() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new StateHistogram();
+        }
+    }
+
+    /**
+     * Starts timing the order's current status, for orders that enter the engine without a
+     * transition: newly created ones and those resumed after a restart.
+     */
+    public void enter(Order order) {
+        order.setStateEnteredNanos(System.nanoTime());
+    }
+
+    /**
+     * Moves the order to {@code next} and records how long it spent in its previous status.
+     *
+     * @throws IllegalStateException if the current status may not move to {@code next}
+     */
+    public void transition(Order order, OrderStatus next) {
+        OrderStatus current = order.getStatus();
+        if (!current.canTransitionTo(next)) {
+            throw new IllegalStateException(
+                    "Order " + order.getId() + " cannot move from " + current + " to " + next);
+        }
+
+        long now = System.nanoTime();
+        long enteredAt = order.getStateEnteredNanos();
+        if (enteredAt != 0) {
+            histograms[current.ordinal()].record(now - enteredAt);
+        }
+        order.setStatus(next);
+        order.setStateEnteredNanos(now);
+    }
+
+    public List<StateLatencyStats> getLatencyStats() {
+        List<StateLatencyStats> stats = new ArrayList<>(STATUSES.length);
+        for (OrderStatus status : STATUSES) {
+            if (!status.isTerminal()) {
+                stats.add(histograms[status.ordinal()].snapshot(status));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Log-linear histogram of time spent in one status, in microseconds: four buckets per power
+     * of two, so a reported percentile is at most 25% above the true value.
+     */
+    static final class StateHistogram {
+        private static final int SUB_BUCKETS = 4;
+        private static final int SUB_BUCKET_BITS = 2;
+        // Sub-bucketed exponents run from SUB_BUCKET_BITS to 62, the highest bit of a non-negative long
+        static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final AtomicLong totalMicros = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+
+        void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts.incrementAndGet(bucket(micros));
+            totalMicros.addAndGet(micros);
+            maxMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        StateLatencyStats snapshot(OrderStatus status) {
+            long[] snapshot = new long[BUCKETS];
+            long count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = counts.get(i);
+                count += snapshot[i];
+            }
+            long max = maxMicros.get();
+            return StateLatencyStats.builder()
+                    .state(status)
+                    .count(count)
+                    .meanMs(count == 0 ? 0 : totalMicros.get() / 1000.0 / count)
+                    .p50Ms(percentileMillis(snapshot, count, 0.50, max))
+                    .p90Ms(percentileMillis(snapshot, count, 0.90, max))
+                    .p99Ms(percentileMillis(snapshot, count, 0.99, max))
+                    .maxMs(max / 1000.0)
+                    .build();
+        }
+
+        private static double percentileMillis(long[] counts, long total, double percentile, long maxMicros) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), maxMicros) / 1000.0;
+                }
+            }
+            return maxMicros / 1000.0;
+        }
+
+        static int bucket(long micros) {
+            if (micros < SUB_BUCKETS) {
+                return (int) micros;
+            }
+            int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+        }
+
+        static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+            long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+            return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+    }
+}
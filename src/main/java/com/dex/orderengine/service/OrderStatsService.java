@@ -0,0 +1,109 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.QueueStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Engine throughput counters and the queue statistics published to {@code /topic/queue-stats}.
+ * Pipeline threads only bump striped counters; one snapshot is computed per interval and
+ * shared by every subscriber and by {@code GET /api/orders/queue/stats}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatsService {
+
+    public static final String STATS_TOPIC = "/topic/queue-stats";
+
+    private static final long PUBLISH_INTERVAL_MS = 1000;
+    private static final int RATE_WINDOW_INTERVALS = 10;
+
+    private final OrderQueueService queueService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder confirmed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    // Cumulative totals at each of the last RATE_WINDOW_INTERVALS ticks, oldest overwritten first
+    private final long[] submittedHistory = new long[RATE_WINDOW_INTERVALS];
+    private final long[] confirmedHistory = new long[RATE_WINDOW_INTERVALS];
+    private final long[] failedHistory = new long[RATE_WINDOW_INTERVALS];
+    private final long[] tickNanos = new long[RATE_WINDOW_INTERVALS];
+    private int tick;
+
+    private volatile QueueStats currentStats = QueueStats.builder().build();
+
+    public void recordSubmitted() {
+        submitted.increment();
+    }
+
+    public void recordConfirmed() {
+        confirmed.increment();
+    }
+
+    public void recordFailed() {
+        failed.increment();
+    }
+
+    public QueueStats getCurrentStats() {
+        return currentStats;
+    }
+
+    @Scheduled(fixedRate = PUBLISH_INTERVAL_MS)
+    public void publishStats() {
+        currentStats = computeStats();
+        messagingTemplate.convertAndSend(STATS_TOPIC, currentStats);
+    }
+
+    private synchronized QueueStats computeStats() {
+        long now = System.nanoTime();
+        long totalSubmitted = submitted.sum();
+        long totalConfirmed = confirmed.sum();
+        long totalFailed = failed.sum();
+
+        int slot = tick % RATE_WINDOW_INTERVALS;
+        // Before the window fills up, rates are taken from the first sample
+        int oldest = tick < RATE_WINDOW_INTERVALS ? 0 : slot;
+        double windowSeconds = tick == 0 ? 0 : (now - tickNanos[oldest]) / 1_000_000_000.0;
+
+        double ordersPerSecond = rate(totalSubmitted, submittedHistory[oldest], windowSeconds);
+        double confirmationsPerSecond = rate(totalConfirmed, confirmedHistory[oldest], windowSeconds);
+        long windowConfirmed = totalConfirmed - confirmedHistory[oldest];
+        long windowFailed = totalFailed - failedHistory[oldest];
+        long windowCompleted = windowConfirmed + windowFailed;
+        double failureRate = tick == 0 || windowCompleted == 0 ? 0 : (double) windowFailed / windowCompleted;
+
+        submittedHistory[slot] = totalSubmitted;
+        confirmedHistory[slot] = totalConfirmed;
+        failedHistory[slot] = totalFailed;
+        tickNanos[slot] = now;
+        tick++;
+
+        return QueueStats.builder()
+                .queueSize(queueService.getQueueSize())
+                .processingCount(queueService.getProcessingCount())
+                .activeOrders(queueService.getActiveOrdersCount())
+                .maxConcurrent(queueService.getMaxConcurrentOrders())
+                .maxQueueSize(queueService.getMaxQueueSize())
+                .totalSubmitted(totalSubmitted)
+                .totalConfirmed(totalConfirmed)
+                .totalFailed(totalFailed)
+                .ordersPerSecond(ordersPerSecond)
+                .confirmationsPerSecond(confirmationsPerSecond)
+                .failureRate(failureRate)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static double rate(long total, long windowStart, double windowSeconds) {
+        return windowSeconds <= 0 ? 0 : (total - windowStart) / windowSeconds;
+    }
+}
@@ -0,0 +1,422 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.TraceEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Per-order trace of the execution hot path, written as one logfmt line per event to its own
+ * file. Callers fill a preallocated ring-buffer record and return without allocating or
+ * formatting; a single writer thread formats the records into a reused buffer. When the ring
+ * is full, records are dropped and counted rather than blocking the pipeline.
+ * Queue moves and notifications are kept for one order in {@code sample-rate}; quotes are not
+ * tied to an order and are kept for one call in {@code sample-rate}, counted across all
+ * orders. Lifecycle transitions, routes and swaps are always kept.
+ */
+@Service
+@Slf4j
+public class OrderTraceLog {
+
+    private static final long MAX_FILE_BYTES = 64L * 1024 * 1024;
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Path path;
+    private final int sampleRate;
+    private final long maxFileBytes;
+    private final TraceRecord[] ring;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong unsampledCount = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    // Writer thread only
+    private final StringBuilder line = new StringBuilder(256);
+    private final ByteBuffer output = ByteBuffer.allocateDirect(OUTPUT_BUFFER_BYTES);
+    private FileChannel channel;
+    private long fileBytes;
+
+    @Autowired
+    public OrderTraceLog(@Value("${orders.trace.path:logs/order-trace.log}") String path,
+                         @Value("${orders.trace.sample-rate:16}") int sampleRate,
+                         @Value("${orders.trace.buffer-size:8192}") int bufferSize) {
+        this(path, sampleRate, bufferSize, MAX_FILE_BYTES);
+    }
+
+    OrderTraceLog(String path, int sampleRate, int bufferSize, long maxFileBytes) {
+        this.path = Path.of(path);
+        this.sampleRate = Math.max(1, sampleRate);
+        this.maxFileBytes = maxFileBytes;
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.ring = new TraceRecord[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new TraceRecord(i - capacity);
+        }
+        this.mask = capacity - 1;
+
+        openChannel();
+        this.writer = new Thread(this::writeLoop, "OrderTraceWriter");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void transition(Order order, OrderEventType type) {
+        String status = order.getStatus().name();
+        int version = order.getEventVersion();
+        TraceRecord record = claim(TraceEvent.TRANSITION);
+        if (record == null) {
+            return;
+        }
+        record.orderId = order.getId();
+        record.dex = order.getSelectedDex();
+        record.text = type.name();
+        record.text2 = status;
+        record.count1 = version;
+        publish(record);
+    }
+
+    public void quote(DexType dex, String tokenIn, String tokenOut, BigDecimal amount, BigDecimal price,
+                      BigDecimal output) {
+        if (unsampledCount.getAndIncrement() % sampleRate != 0) {
+            return;
+        }
+        double amountValue = amount.doubleValue();
+        double priceValue = price.doubleValue();
+        double outputValue = output.doubleValue();
+        TraceRecord record = claim(TraceEvent.QUOTE);
+        if (record == null) {
+            return;
+        }
+        record.dex = dex;
+        record.text = tokenIn;
+        record.text2 = tokenOut;
+        record.value1 = amountValue;
+        record.value2 = priceValue;
+        record.value3 = outputValue;
+        publish(record);
+    }
+
+    /**
+     * @param dex the venue for a whole-order route, or null for a split
+     * @param gain expected output gained over the best single venue
+     */
+    public void route(String orderId, DexType dex, int legs, double gain) {
+        TraceRecord record = claim(TraceEvent.ROUTE);
+        if (record == null) {
+            return;
+        }
+        record.orderId = orderId;
+        record.dex = dex;
+        record.count1 = legs;
+        record.value1 = gain;
+        publish(record);
+    }
+
+    public void swapSubmitted(String orderId, DexType dex, String txHash, BigDecimal amountIn) {
+        double amount = amountIn.doubleValue();
+        TraceRecord record = claim(TraceEvent.SWAP_SUBMITTED);
+        if (record == null) {
+            return;
+        }
+        record.orderId = orderId;
+        record.dex = dex;
+        record.text = txHash;
+        record.value1 = amount;
+        publish(record);
+    }
+
+    public void txLanded(DexType dex, String txHash, BigDecimal executedPrice) {
+        double price = executedPrice.doubleValue();
+        TraceRecord record = claim(TraceEvent.TX_LANDED);
+        if (record == null) {
+            return;
+        }
+        record.dex = dex;
+        record.text = txHash;
+        record.value1 = price;
+        publish(record);
+    }
+
+    /**
+     * @param operation a constant such as {@code "ENQUEUED"}; it is written as-is
+     */
+    public void queue(String orderId, String operation, int queueSize, int processing) {
+        if (!isSampled(orderId)) {
+            return;
+        }
+        TraceRecord record = claim(TraceEvent.QUEUE);
+        if (record == null) {
+            return;
+        }
+        record.orderId = orderId;
+        record.text = operation;
+        record.count1 = queueSize;
+        record.count2 = processing;
+        publish(record);
+    }
+
+    public void notified(String orderId, OrderStatus status, String message) {
+        if (!isSampled(orderId)) {
+            return;
+        }
+        String statusName = status.name();
+        TraceRecord record = claim(TraceEvent.NOTIFY);
+        if (record == null) {
+            return;
+        }
+        record.orderId = orderId;
+        record.text = statusName;
+        record.text2 = message;
+        publish(record);
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Records published or being filled in that the writer has not reached yet.
+     */
+    public long getPendingCount() {
+        return claimed.get() - consumed;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    // Sampling by order keeps every sampled order's trace complete
+    private boolean isSampled(String orderId) {
+        return Math.floorMod(orderId.hashCode(), sampleRate) == 0;
+    }
+
+    // Claims the next slot. Callers evaluate everything that can throw first: a claimed slot
+    // that is never published would stall the writer
+    private TraceRecord claim(TraceEvent event) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= ring.length) {
+                dropped.increment();
+                return null;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        TraceRecord record = ring[(int) (sequence & mask)];
+        record.claimedSequence = sequence;
+        record.epochMillis = System.currentTimeMillis();
+        record.event = event;
+        record.orderId = null;
+        record.dex = null;
+        record.text = null;
+        record.text2 = null;
+        return record;
+    }
+
+    private void publish(TraceRecord record) {
+        record.sequence = record.claimedSequence;
+    }
+
+    private void writeLoop() {
+        long lastDropReport = System.nanoTime();
+        long reportedDrops = 0;
+        while (true) {
+            boolean stopping = !running;
+            int written = drain();
+            if (written == 0) {
+                if (stopping) {
+                    break;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+
+            long now = System.nanoTime();
+            if (now - lastDropReport > DROP_REPORT_INTERVAL_NANOS) {
+                long drops = dropped.sum();
+                if (drops > reportedDrops) {
+                    log.warn("Order trace buffer full, dropped {} records", drops - reportedDrops);
+                    reportedDrops = drops;
+                }
+                lastDropReport = now;
+            }
+        }
+        closeChannel();
+    }
+
+    private int drain() {
+        int written = 0;
+        long sequence = consumed;
+        while (true) {
+            TraceRecord record = ring[(int) (sequence & mask)];
+            if (record.sequence != sequence) {
+                break;
+            }
+            format(record);
+            writeLine();
+            consumed = ++sequence;
+            written++;
+        }
+        if (written > 0) {
+            flush();
+        }
+        return written;
+    }
+
+    private void format(TraceRecord record) {
+        StringBuilder out = line;
+        out.setLength(0);
+        out.append("ts=").append(record.epochMillis).append(" event=").append(record.event.name());
+        if (record.orderId != null) {
+            out.append(" order=").append(record.orderId);
+        }
+        if (record.dex != null) {
+            out.append(" dex=").append(record.dex.name());
+        }
+
+        switch (record.event) {
+            case TRANSITION -> out.append(" type=").append(record.text)
+                    .append(" status=").append(record.text2)
+                    .append(" version=").append(record.count1);
+            case QUOTE -> out.append(" pair=").append(record.text).append('/').append(record.text2)
+                    .append(" amount=").append(record.value1)
+                    .append(" price=").append(record.value2)
+                    .append(" output=").append(record.value3);
+            case ROUTE -> out.append(" legs=").append(record.count1).append(" gain=").append(record.value1);
+            case SWAP_SUBMITTED -> out.append(" tx=").append(record.text).append(" amount=").append(record.value1);
+            case TX_LANDED -> out.append(" tx=").append(record.text).append(" price=").append(record.value1);
+            case QUEUE -> out.append(" op=").append(record.text)
+                    .append(" queued=").append(record.count1)
+                    .append(" processing=").append(record.count2);
+            case NOTIFY -> {
+                out.append(" status=").append(record.text).append(" message=\"");
+                appendQuoted(out, record.text2);
+                out.append('"');
+            }
+        }
+        out.append('\n');
+    }
+
+    private static void appendQuoted(StringBuilder out, String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            out.append(c == '"' || c == '\n' ? '\'' : c);
+        }
+    }
+
+    // Encodes the line as ASCII straight into the output buffer; anything else becomes '?'
+    private void writeLine() {
+        int length = Math.min(line.length(), OUTPUT_BUFFER_BYTES);
+        if (output.remaining() < length) {
+            flush();
+        }
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            output.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+    }
+
+    private void flush() {
+        output.flip();
+        if (channel == null) {
+            output.clear();
+            return;
+        }
+        try {
+            while (output.hasRemaining()) {
+                fileBytes += channel.write(output);
+            }
+            if (fileBytes > maxFileBytes) {
+                rotate();
+            }
+        } catch (IOException e) {
+            log.error("Failed to write order trace, disabling it", e);
+            closeChannel();
+        }
+        output.clear();
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        Files.move(path, path.resolveSibling(path.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        openChannel();
+    }
+
+    private void openChannel() {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            fileBytes = channel.size();
+        } catch (IOException e) {
+            log.error("Cannot open order trace {}, tracing is disabled", path, e);
+            channel = null;
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close order trace: {}", e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * One ring slot. {@code sequence} is the last sequence published into it; the writer reads
+     * the fields only once it matches, and the volatile write in {@link #publish} orders them.
+     */
+    private static final class TraceRecord {
+        private volatile long sequence;
+        private long claimedSequence;
+        private long epochMillis;
+        private TraceEvent event;
+        private String orderId;
+        private DexType dex;
+        private String text;
+        private String text2;
+        private double value1;
+        private double value2;
+        private double value3;
+        private int count1;
+        private int count2;
+
+        private TraceRecord(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
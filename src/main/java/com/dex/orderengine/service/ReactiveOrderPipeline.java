@@ -0,0 +1,124 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.model.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking engine: every order is a chain of stages (quote fan-out, rank, build, submit)
+ * whose continuations run on a small fixed event loop, after which {@link ConfirmationTracker}
+ * takes over. Waiting is done with timers
+ * and future callbacks instead of sleeping threads, and snapshots are written off-loop by
+ * {@link OrderSnapshotWriter}, so the number of in-flight orders is not bounded by threads.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.engine", havingValue = "reactive")
+@Slf4j
+public class ReactiveOrderPipeline implements OrderPipeline {
+
+    private static final int EVENT_LOOP_THREADS = 2;
+    private static final long BUILD_DELAY_MS = 500;
+
+    private final MockDexRoutingService dexRoutingService;
+    private final SplitOrderRouter splitRouter;
+    private final OrderLifecycle lifecycle;
+    private final ConfirmationTracker confirmationTracker;
+    private final ScheduledExecutorService eventLoop =
+            Executors.newScheduledThreadPool(EVENT_LOOP_THREADS, new CustomizableThreadFactory("OrderEventLoop-"));
+
+    public ReactiveOrderPipeline(MockDexRoutingService dexRoutingService,
+                                 SplitOrderRouter splitRouter,
+                                 OrderLifecycle lifecycle,
+                                 ConfirmationTracker confirmationTracker) {
+        this.dexRoutingService = dexRoutingService;
+        this.splitRouter = splitRouter;
+        this.lifecycle = lifecycle;
+        this.confirmationTracker = confirmationTracker;
+    }
+
+    @Override
+    public void execute(Order order) {
+        eventLoop.execute(() -> route(order));
+    }
+
+    @Override
+    public void awaitConfirmation(Order order, List<String> txHashes) {
+        confirmationTracker.resume(order, txHashes,
+                errorMessage -> eventLoop.execute(() -> handleRetry(order, errorMessage)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        eventLoop.shutdown();
+    }
+
+    private void route(Order order) {
+        try {
+            lifecycle.startRouting(order);
+
+            splitRouter.route(order)
+                    .thenAcceptAsync(plan -> {
+                        lifecycle.routeSelected(order, plan);
+                        build(order, plan);
+                    }, eventLoop)
+                    .exceptionally(error -> {
+                        eventLoop.execute(() -> handleRetry(order, rootMessage(error)));
+                        return null;
+                    });
+        } catch (RuntimeException e) {
+            log.error("Error routing order {}: {}", order.getId(), e.getMessage(), e);
+            handleRetry(order, e.getMessage());
+        }
+    }
+
+    private void build(Order order, RoutePlan plan) {
+        lifecycle.startBuilding(order);
+        eventLoop.schedule(() -> submit(order, plan), BUILD_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    // Runs as a timer task, so a throw here would only be kept in its discarded future
+    private void submit(Order order, RoutePlan plan) {
+        try {
+            dexRoutingService.submitSwaps(order, plan.getLegs())
+                    .whenCompleteAsync((txHashes, error) -> {
+                        if (error != null) {
+                            handleRetry(order, rootMessage(error));
+                            return;
+                        }
+                        try {
+                            lifecycle.submitted(order, txHashes);
+                            confirmationTracker.track(order, plan.getLegs(), txHashes,
+                                    errorMessage -> eventLoop.execute(() -> handleRetry(order, errorMessage)));
+                        } catch (RuntimeException e) {
+                            log.error("Error submitting order {}: {}", order.getId(), e.getMessage(), e);
+                            handleRetry(order, e.getMessage());
+                        }
+                    }, eventLoop);
+        } catch (RuntimeException e) {
+            log.error("Error submitting order {}: {}", order.getId(), e.getMessage(), e);
+            handleRetry(order, e.getMessage());
+        }
+    }
+
+    private void handleRetry(Order order, String errorMessage) {
+        long delay = lifecycle.retryOrFail(order, errorMessage);
+        if (delay >= 0) {
+            eventLoop.schedule(() -> lifecycle.requeue(order), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+}
@@ -0,0 +1,412 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.dto.ShardStats;
+import com.dex.orderengine.model.Order;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sharded engine: each token pair is homed on one {@link OrderShard}, chosen by hashing the
+ * pair, and that shard's thread is the only one touching the pair's state. Orders of a pair
+ * route and build concurrently, but their swaps are submitted one at a time in dispatch
+ * order, so two orders never race for the same pool and a pair's fills stay deterministic,
+ * while different pairs proceed in parallel across shards.
+ * When a shard saturates, the pairs sharing it with its hottest pair are moved to the least
+ * loaded shards as soon as they are idle.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.engine", havingValue = "sharded")
+@Slf4j
+public class ShardedOrderPipeline implements OrderPipeline {
+
+    private static final long BUILD_DELAY_MS = 500;
+    private static final long BALANCE_INTERVAL_MS = 1000;
+    private static final int SATURATED_QUEUE_DEPTH = 16;
+    private static final double SATURATED_UTILIZATION = 0.8;
+    private static final double SKEW_THRESHOLD = 1.5;
+
+    private final MockDexRoutingService dexRoutingService;
+    private final SplitOrderRouter splitRouter;
+    private final OrderLifecycle lifecycle;
+    private final ConfirmationTracker confirmationTracker;
+
+    private final int maxQueued;
+    private final OrderShard[] shards;
+    private final Map<String, PairRoute> pairs = new ConcurrentHashMap<>();
+    private volatile List<ShardStats> shardStats = List.of();
+
+    public ShardedOrderPipeline(MockDexRoutingService dexRoutingService,
+                                SplitOrderRouter splitRouter,
+                                OrderLifecycle lifecycle,
+                                ConfirmationTracker confirmationTracker,
+                                @Value("${orders.sharded.shards:0}") int shardCount,
+                                @Value("${orders.sharded.max-queued:256}") int maxQueued) {
+        this.dexRoutingService = dexRoutingService;
+        this.splitRouter = splitRouter;
+        this.lifecycle = lifecycle;
+        this.confirmationTracker = confirmationTracker;
+        this.maxQueued = maxQueued;
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new OrderShard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new OrderShard(i);
+        }
+    }
+
+    @Override
+    public void execute(Order order) {
+        String key = pairKey(order);
+        while (true) {
+            PairRoute pair = pairs.computeIfAbsent(key, k -> new PairRoute(k, homeShard(k)));
+            int home = pair.acquire();
+            if (home >= 0) {
+                OrderShard shard = shards[home];
+                shard.execute(() -> admit(shard, pair, order));
+                return;
+            }
+            // The balancer retired this entry after it was looked up; the next lookup creates a fresh one
+            pairs.remove(key, pair);
+        }
+    }
+
+    @Override
+    public void awaitConfirmation(Order order, List<String> txHashes) {
+        // Submitted orders no longer hold their pair, so retries may run on any shard; the pair's
+        // hash home keeps them spread like the pairs themselves
+        OrderShard shard = shards[homeShard(pairKey(order))];
+        confirmationTracker.resume(order, txHashes,
+                errorMessage -> shard.execute(() -> handleRetry(shard, order, errorMessage)));
+    }
+
+    /**
+     * Holds orders in the admission queue while too many built orders wait behind their pair's
+     * submissions, so a hot pair cannot take every processing slot from the others.
+     */
+    @Override
+    public boolean canAccept() {
+        int queued = 0;
+        for (OrderShard shard : shards) {
+            queued += shard.getQueuedOrders();
+        }
+        return queued < maxQueued;
+    }
+
+    @Override
+    public List<ShardStats> getShardStats() {
+        return shardStats;
+    }
+
+    /**
+     * Samples every shard and, if the most loaded one is saturated and well above the mean,
+     * moves the idle pairs sharing it with its hottest pair to the least loaded shards. Pairs
+     * that had no orders in the last window and have none in flight are dropped, so the map
+     * only holds pairs that are trading.
+     */
+    @Scheduled(fixedRate = BALANCE_INTERVAL_MS)
+    public void rebalance() {
+        int[] pairCounts = new int[shards.length];
+        PairRoute[] hottest = new PairRoute[shards.length];
+        for (PairRoute pair : pairs.values()) {
+            int home = pair.sampleWindow();
+            if (pair.windowDispatched == 0 && pair.tryRetire()) {
+                pairs.remove(pair.key, pair);
+                continue;
+            }
+            pairCounts[home]++;
+            if (hottest[home] == null || pair.windowDispatched > hottest[home].windowDispatched) {
+                hottest[home] = pair;
+            }
+        }
+
+        int[] loads = new int[shards.length];
+        long totalLoad = 0;
+        for (int i = 0; i < shards.length; i++) {
+            loads[i] = shards[i].getLoad();
+            totalLoad += loads[i];
+        }
+        double meanLoad = (double) totalLoad / shards.length;
+
+        List<ShardStats> stats = new ArrayList<>(shards.length);
+        int busiest = 0;
+        for (int i = 0; i < shards.length; i++) {
+            stats.add(shards[i].sample(pairCounts[i], hottest[i] == null ? null : hottest[i].key, meanLoad));
+            if (loads[i] > loads[busiest]) {
+                busiest = i;
+            }
+        }
+        shardStats = stats;
+
+        ShardStats busiestStats = stats.get(busiest);
+        boolean saturated = busiestStats.getQueuedOrders() >= SATURATED_QUEUE_DEPTH
+                || busiestStats.getUtilization() >= SATURATED_UTILIZATION;
+        if (saturated && busiestStats.getLoadRatio() >= SKEW_THRESHOLD && pairCounts[busiest] > 1) {
+            isolate(busiest, hottest[busiest], loads);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (OrderShard shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    // A pair that is busy keeps its shard, so its orders never run on two shards at once;
+    // it is tried again on the next pass
+    private void isolate(int from, PairRoute hotPair, int[] loads) {
+        for (PairRoute pair : pairs.values()) {
+            if (pair == hotPair || pair.shard() != from) {
+                continue;
+            }
+            int to = leastLoaded(loads);
+            if (to != from && pair.tryMove(from, to)) {
+                loads[to] += Math.max(1, pair.windowDispatched);
+                shards[from].recordPairMovedOut();
+                log.info("Moved pair {} from shard {} to shard {} to isolate hot pair {}",
+                        pair.key, from, to, hotPair.key);
+            }
+        }
+    }
+
+    private static int leastLoaded(int[] loads) {
+        int least = 0;
+        for (int i = 1; i < loads.length; i++) {
+            if (loads[i] < loads[least]) {
+                least = i;
+            }
+        }
+        return least;
+    }
+
+    // The methods below run on the pair's shard
+
+    private void admit(OrderShard shard, PairRoute pair, Order order) {
+        long sequence = pair.nextSequence++;
+        if (pair.inFlight++ == 0) {
+            shard.pairActivated();
+        }
+        route(shard, pair, order, sequence);
+    }
+
+    private void route(OrderShard shard, PairRoute pair, Order order, long sequence) {
+        CompletableFuture<RoutePlan> routing;
+        try {
+            lifecycle.startRouting(order);
+            routing = splitRouter.route(order);
+        } catch (RuntimeException e) {
+            abandon(shard, pair, order, sequence, e.getMessage());
+            return;
+        }
+
+        routing.thenAcceptAsync(plan -> {
+            lifecycle.routeSelected(order, plan);
+            build(shard, pair, order, sequence, plan);
+        }, shard).exceptionally(error -> {
+            shard.execute(() -> abandon(shard, pair, order, sequence, rootMessage(error)));
+            return null;
+        });
+    }
+
+    private void build(OrderShard shard, PairRoute pair, Order order, long sequence, RoutePlan plan) {
+        lifecycle.startBuilding(order);
+        shard.schedule(() -> built(shard, pair, sequence, new PendingSubmission(order, plan)), BUILD_DELAY_MS);
+    }
+
+    private void built(OrderShard shard, PairRoute pair, long sequence, PendingSubmission submission) {
+        pair.ready.put(sequence, submission);
+        shard.orderQueued();
+        submitNext(shard, pair);
+    }
+
+    /**
+     * Submits the pair's next order in dispatch sequence if it is built and no submission of
+     * the pair is in progress. Sequences abandoned before building are skipped.
+     */
+    private void submitNext(OrderShard shard, PairRoute pair) {
+        while (!pair.submitting) {
+            PendingSubmission next = pair.ready.remove(pair.nextSubmission);
+            if (next == null) {
+                return;
+            }
+            pair.nextSubmission++;
+            if (next != PendingSubmission.ABANDONED) {
+                shard.orderDequeued();
+                pair.submitting = true;
+                submit(shard, pair, next.order, next.plan);
+            }
+        }
+    }
+
+    private void submit(OrderShard shard, PairRoute pair, Order order, RoutePlan plan) {
+        try {
+            dexRoutingService.submitSwaps(order, plan.getLegs())
+                    .whenCompleteAsync((txHashes, error) -> {
+                        try {
+                            if (error != null) {
+                                handleRetry(shard, order, rootMessage(error));
+                                return;
+                            }
+                            lifecycle.submitted(order, txHashes);
+                            confirmationTracker.track(order, plan.getLegs(), txHashes,
+                                    errorMessage -> shard.execute(() -> handleRetry(shard, order, errorMessage)));
+                        } catch (RuntimeException e) {
+                            log.error("Error submitting order {}: {}", order.getId(), e.getMessage(), e);
+                            handleRetry(shard, order, e.getMessage());
+                        } finally {
+                            submissionFinished(shard, pair);
+                        }
+                    }, shard);
+        } catch (RuntimeException e) {
+            handleRetry(shard, order, e.getMessage());
+            submissionFinished(shard, pair);
+        }
+    }
+
+    private void submissionFinished(OrderShard shard, PairRoute pair) {
+        pair.submitting = false;
+        submitNext(shard, pair);
+        release(shard, pair);
+    }
+
+    // An order that fails before it is built gives up its sequence so later ones can submit
+    private void abandon(OrderShard shard, PairRoute pair, Order order, long sequence, String errorMessage) {
+        pair.ready.put(sequence, PendingSubmission.ABANDONED);
+        submitNext(shard, pair);
+        release(shard, pair);
+        handleRetry(shard, order, errorMessage);
+    }
+
+    /**
+     * Ends one of the pair's orders once it is submitted or has failed.
+     */
+    private void release(OrderShard shard, PairRoute pair) {
+        shard.orderCompleted();
+        if (--pair.inFlight == 0) {
+            shard.pairIdle();
+        }
+        // Last, so the pair only looks idle to the balancer once its state is settled
+        pair.release();
+    }
+
+    private void handleRetry(OrderShard shard, Order order, String errorMessage) {
+        long delay = lifecycle.retryOrFail(order, errorMessage);
+        if (delay >= 0) {
+            shard.schedule(() -> lifecycle.requeue(order), delay);
+        }
+    }
+
+    private int homeShard(String pairKey) {
+        return Math.floorMod(pairKey.hashCode(), shards.length);
+    }
+
+    // Both directions trade against the same pools, so they share a shard
+    private static String pairKey(Order order) {
+        String tokenIn = order.getTokenIn();
+        String tokenOut = order.getTokenOut();
+        return tokenIn.compareTo(tokenOut) <= 0 ? tokenIn + "/" + tokenOut : tokenOut + "/" + tokenIn;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage();
+    }
+
+    /**
+     * Routing entry and shard-owned state of one token pair. {@code state} packs the home shard
+     * into the high 32 bits and the number of dispatched orders not yet released into the low
+     * 32 bits, so a dispatcher reads the shard and registers its order in one atomic step and
+     * the pair can only be moved or retired while that count is zero. A retired entry has been
+     * removed from the map and refuses further orders.
+     */
+    private static final class PairRoute {
+        private static final long RETIRED = -1L;
+        private static final long IN_FLIGHT_MASK = 0xFFFF_FFFFL;
+
+        private final String key;
+        private final AtomicLong state;
+        private final AtomicLong dispatched = new AtomicLong();
+
+        // Owned by the home shard's thread. Built orders wait in ready until every earlier
+        // sequence of the pair has been submitted or abandoned
+        private final Map<Long, PendingSubmission> ready = new HashMap<>();
+        private long nextSequence;
+        private long nextSubmission;
+        private int inFlight;
+        private boolean submitting;
+
+        // Owned by the balancer
+        private long lastDispatched;
+        private long windowDispatched;
+
+        private PairRoute(String key, int shard) {
+            this.key = key;
+            this.state = new AtomicLong((long) shard << 32);
+        }
+
+        /**
+         * @return the home shard, or -1 if the pair was retired
+         */
+        private int acquire() {
+            long current;
+            do {
+                current = state.get();
+                if (current == RETIRED) {
+                    return -1;
+                }
+            } while (!state.compareAndSet(current, current + 1));
+            dispatched.incrementAndGet();
+            return (int) (current >>> 32);
+        }
+
+        private boolean tryRetire() {
+            long current = state.get();
+            return (current & IN_FLIGHT_MASK) == 0 && state.compareAndSet(current, RETIRED);
+        }
+
+        private void release() {
+            state.decrementAndGet();
+        }
+
+        private int shard() {
+            return (int) (state.get() >>> 32);
+        }
+
+        private boolean tryMove(int from, int to) {
+            return state.compareAndSet((long) from << 32, (long) to << 32);
+        }
+
+        private int sampleWindow() {
+            long total = dispatched.get();
+            windowDispatched = total - lastDispatched;
+            lastDispatched = total;
+            return shard();
+        }
+    }
+
+    private static final class PendingSubmission {
+        private static final PendingSubmission ABANDONED = new PendingSubmission(null, null);
+
+        private final Order order;
+        private final RoutePlan plan;
+
+        private PendingSubmission(Order order, RoutePlan plan) {
+            this.order = order;
+            this.plan = plan;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DepthQuote;
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decides how an order's remaining amount is executed. Small orders go whole to the best
+ * scored venue. Large ones are quoted at several sizes per venue and split with
+ * {@link SplitRouteSolver} when the combined output beats any single venue by enough to be
+ * worth the extra transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class SplitOrderRouter {
+
+    private static final BigDecimal SPLIT_MIN_AMOUNT = new BigDecimal("100");
+    private static final int SPLIT_INCREMENTS = 16;
+    private static final double MIN_SPLIT_GAIN = 0.001;
+
+    private final MockDexRoutingService dexRoutingService;
+    private final VenueHealthTracker venueHealth;
+    private final OrderTraceLog trace;
+
+    public CompletableFuture<RoutePlan> route(Order order) {
+        BigDecimal amount = order.remainingAmount();
+        if (amount.compareTo(SPLIT_MIN_AMOUNT) < 0) {
+            return dexRoutingService.getQuotes(order.getTokenIn(), order.getTokenOut(), amount)
+                    .thenApply(quotes -> {
+                        DexQuote best = dexRoutingService.selectBestQuote(quotes);
+                        trace.route(order.getId(), best.getDexType(), 1, 0);
+                        return RoutePlan.builder().quotes(quotes).legs(List.of(best)).build();
+                    });
+        }
+
+        return dexRoutingService.getDepthQuotes(order.getTokenIn(), order.getTokenOut(), amount, SPLIT_INCREMENTS)
+                .thenApply(depthQuotes -> plan(order, depthQuotes));
+    }
+
+    private RoutePlan plan(Order order, List<DepthQuote> depthQuotes) {
+        int venues = depthQuotes.size();
+        double[][] outputs = new double[venues][SPLIT_INCREMENTS + 1];
+        List<DexQuote> fullQuotes = new ArrayList<>(venues);
+
+        int bestSingle = 0;
+        for (int v = 0; v < venues; v++) {
+            DepthQuote depth = depthQuotes.get(v);
+            double weight = venueHealth.weight(depth.getDexType(), depth.getResponseTimeMs());
+            for (int k = 1; k <= SPLIT_INCREMENTS; k++) {
+                outputs[v][k] = depth.getLevels().get(k - 1).getOutputAmount().doubleValue() * weight;
+            }
+            fullQuotes.add(depth.getLevels().get(SPLIT_INCREMENTS - 1));
+            if (outputs[v][SPLIT_INCREMENTS] > outputs[bestSingle][SPLIT_INCREMENTS]) {
+                bestSingle = v;
+            }
+        }
+
+        int[] allocation = SplitRouteSolver.allocate(outputs, SPLIT_INCREMENTS);
+        double splitOutput = SplitRouteSolver.totalOutput(outputs, allocation);
+        double singleOutput = outputs[bestSingle][SPLIT_INCREMENTS];
+
+        if (splitOutput < singleOutput * (1 + MIN_SPLIT_GAIN)) {
+            DexQuote best = fullQuotes.get(bestSingle);
+            trace.route(order.getId(), best.getDexType(), 1, 0);
+            return RoutePlan.builder().quotes(fullQuotes).legs(List.of(best)).build();
+        }
+
+        List<DexQuote> legs = new ArrayList<>(venues);
+        for (int v = 0; v < venues; v++) {
+            if (allocation[v] > 0) {
+                legs.add(depthQuotes.get(v).getLevels().get(allocation[v] - 1));
+            }
+        }
+        trace.route(order.getId(), null, legs.size(), splitOutput - singleOutput);
+        return RoutePlan.builder().quotes(fullQuotes).legs(legs).build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.dex.orderengine.service;
+
+/**
+ * Allocates an order across venues to maximise total output. The amount is cut into equal
+ * increments and {@code outputs[v][k]} is venue {@code v}'s output for {@code k} increments.
+ * Pool output curves are concave (each increment buys less than the one before), so handing
+ * out increments one at a time to the venue with the largest marginal output is optimal on
+ * that grid, in {@code O(increments * venues)} with no allocation beyond the result.
+ */
+public final class SplitRouteSolver {
+
+    private SplitRouteSolver() {
+    }
+
+    /**
+     * @param outputs {@code outputs[v]} has {@code increments + 1} entries, starting with 0
+     * @return increments given to each venue, summing to {@code increments}
+     */
+    public static int[] allocate(double[][] outputs, int increments) {
+        int venues = outputs.length;
+        int[] allocation = new int[venues];
+
+        for (int step = 0; step < increments; step++) {
+            int best = -1;
+            double bestGain = Double.NEGATIVE_INFINITY;
+            for (int v = 0; v < venues; v++) {
+                int next = allocation[v];
+                if (next == increments) {
+                    continue;
+                }
+                double gain = outputs[v][next + 1] - outputs[v][next];
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = v;
+                }
+            }
+            allocation[best]++;
+        }
+        return allocation;
+    }
+
+    /**
+     * Total output of an allocation returned by {@link #allocate}.
+     */
+    public static double totalOutput(double[][] outputs, int[] allocation) {
+        double total = 0;
+        for (int v = 0; v < allocation.length; v++) {
+            total += outputs[v][allocation[v]];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,154 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.dto.StageStats;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Staged engine: routing, building and submission each run on their own
+ * {@link OrderStage} with a separate worker budget and bounded queue. A full stage blocks the
+ * stage before it, and a full routing stage stops {@code processQueue} from dequeuing, so a
+ * slow phase throttles admission instead of tying up the threads of the faster ones.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.engine", havingValue = "staged")
+@Slf4j
+public class StagedOrderPipeline implements OrderPipeline {
+
+    private static final long BUILD_DELAY_MS = 500;
+    private static final long STATS_INTERVAL_MS = 1000;
+
+    private final MockDexRoutingService dexRoutingService;
+    private final SplitOrderRouter splitRouter;
+    private final OrderLifecycle lifecycle;
+    private final ConfirmationTracker confirmationTracker;
+
+    private final OrderStage routing;
+    private final OrderStage building;
+    private final OrderStage submission;
+    private final ScheduledExecutorService retryTimer =
+            Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("OrderRetryTimer-"));
+
+    public StagedOrderPipeline(MockDexRoutingService dexRoutingService,
+                               SplitOrderRouter splitRouter,
+                               OrderLifecycle lifecycle,
+                               ConfirmationTracker confirmationTracker,
+                               @Value("${orders.staged.routing-workers:4}") int routingWorkers,
+                               @Value("${orders.staged.building-workers:4}") int buildingWorkers,
+                               @Value("${orders.staged.submission-workers:4}") int submissionWorkers,
+                               @Value("${orders.staged.queue-capacity:32}") int queueCapacity) {
+        this.dexRoutingService = dexRoutingService;
+        this.splitRouter = splitRouter;
+        this.lifecycle = lifecycle;
+        this.confirmationTracker = confirmationTracker;
+        this.routing = new OrderStage(OrderStatus.ROUTING, routingWorkers, queueCapacity);
+        this.building = new OrderStage(OrderStatus.BUILDING, buildingWorkers, queueCapacity);
+        this.submission = new OrderStage(OrderStatus.SUBMITTED, submissionWorkers, queueCapacity);
+    }
+
+    @Override
+    public void execute(Order order) {
+        handOff(routing, order, () -> route(order));
+    }
+
+    @Override
+    public void awaitConfirmation(Order order, List<String> txHashes) {
+        confirmationTracker.resume(order, txHashes, errorMessage -> handleRetry(order, errorMessage));
+    }
+
+    /**
+     * Only {@code processQueue} feeds the routing stage, so a free slot seen here is still free
+     * when {@link #execute} runs and the scheduler thread never blocks on a full stage.
+     */
+    @Override
+    public boolean canAccept() {
+        return routing.hasCapacity();
+    }
+
+    @Override
+    public List<StageStats> getStageStats() {
+        return List.of(routing.getStats(), building.getStats(), submission.getStats());
+    }
+
+    @Scheduled(fixedRate = STATS_INTERVAL_MS)
+    public void sampleStageStats() {
+        routing.sample();
+        building.sample();
+        submission.sample();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        routing.shutdown();
+        building.shutdown();
+        submission.shutdown();
+        retryTimer.shutdownNow();
+    }
+
+    private void route(Order order) {
+        try {
+            lifecycle.startRouting(order);
+
+            RoutePlan plan = splitRouter.route(order).get();
+            lifecycle.routeSelected(order, plan);
+
+            handOff(building, order, () -> build(order, plan));
+        } catch (Exception e) {
+            log.error("Error routing order {}: {}", order.getId(), e.getMessage(), e);
+            handleRetry(order, e.getMessage());
+        }
+    }
+
+    private void build(Order order, RoutePlan plan) {
+        try {
+            lifecycle.startBuilding(order);
+            Thread.sleep(BUILD_DELAY_MS);
+
+            handOff(submission, order, () -> submit(order, plan));
+        } catch (Exception e) {
+            log.error("Error building order {}: {}", order.getId(), e.getMessage(), e);
+            handleRetry(order, e.getMessage());
+        }
+    }
+
+    private void submit(Order order, RoutePlan plan) {
+        try {
+            List<String> txHashes = dexRoutingService.submitSwaps(order, plan.getLegs()).get();
+            lifecycle.submitted(order, txHashes);
+            confirmationTracker.track(order, plan.getLegs(), txHashes,
+                    errorMessage -> handleRetry(order, errorMessage));
+        } catch (Exception e) {
+            log.error("Error submitting order {}: {}", order.getId(), e.getMessage(), e);
+            handleRetry(order, e.getMessage());
+        }
+    }
+
+    private void handOff(OrderStage next, Order order, Runnable task) {
+        try {
+            next.submit(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handleRetry(order, "Interrupted while waiting for the next stage");
+        }
+    }
+
+    private void handleRetry(Order order, String errorMessage) {
+        long delay = lifecycle.retryOrFail(order, errorMessage);
+        if (delay >= 0) {
+            retryTimer.schedule(() -> lifecycle.requeue(order), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.VenueHealthStats;
+import com.dex.orderengine.model.CircuitState;
+import com.dex.orderengine.model.DexType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding-window health of each DEX: quote success and latency, and whether submitted swaps
+ * actually land. Drives a per-venue circuit breaker that stops quoting a failing venue, and
+ * the routing score that weighs a quote's price by how likely and how fast it is to fill.
+ */
+@Service
+@Slf4j
+public class VenueHealthTracker {
+
+    private static final int WINDOW_SIZE = 50;
+    static final int MIN_SAMPLES = 10;
+    private static final double FAILURE_RATE_THRESHOLD = 0.5;
+    static final long OPEN_DURATION_MS = 30_000;
+    static final long SLOW_QUOTE_MS = 1000;
+    // Expected price drift per second between quoting and landing, charged against slow venues
+    private static final double LATENCY_COST_PER_SECOND = 0.0005;
+
+    private final Map<DexType, VenueHealth> venues = new EnumMap<>(DexType.class);
+
+    public VenueHealthTracker() {
+        this(System::currentTimeMillis);
+    }
+
+    VenueHealthTracker(LongSupplier clock) {
+        for (DexType dex : DexType.values()) {
+            venues.put(dex, new VenueHealth(dex, clock));
+        }
+    }
+
+    /**
+     * Whether the venue should be asked for a quote. An open breaker lets a single probe
+     * through once its cool-down has passed; only the probe's own quote closes or re-opens it.
+     */
+    public boolean allowQuote(DexType dex) {
+        return venues.get(dex).allowRequest();
+    }
+
+    public void recordQuote(DexType dex, long latencyMs, boolean success) {
+        // A quote slower than the routing budget is as useless as a failed one
+        venues.get(dex).recordQuote(latencyMs, success && latencyMs <= SLOW_QUOTE_MS);
+    }
+
+    public void recordExecution(DexType dex, long latencyMs, boolean success) {
+        venues.get(dex).recordExecution(latencyMs, success);
+    }
+
+    /**
+     * Expected value of taking the quote: output scaled by the venue's fill probability, less
+     * the drift cost of its typical quote-to-confirmation latency.
+     */
+    public BigDecimal score(DexQuote quote) {
+        double weight = weight(quote.getDexType(), quote.getResponseTimeMs());
+        return quote.getOutputAmount().multiply(BigDecimal.valueOf(weight));
+    }
+
+    /**
+     * The factor {@link #score} applies to a venue's output, for callers that score many
+     * candidate sizes against the same venue.
+     */
+    public double weight(DexType dex, long quoteLatencyMs) {
+        VenueHealth venue = venues.get(dex);
+        double expectedLatencySeconds;
+        double fillProbability;
+        synchronized (venue) {
+            fillProbability = venue.fillProbability();
+            expectedLatencySeconds = (quoteLatencyMs + venue.executions.averageLatency()) / 1000.0;
+        }
+        return fillProbability * (1 - LATENCY_COST_PER_SECOND * expectedLatencySeconds);
+    }
+
+    public Map<DexType, VenueHealthStats> getHealth() {
+        Map<DexType, VenueHealthStats> health = new EnumMap<>(DexType.class);
+        venues.forEach((dex, venue) -> health.put(dex, venue.toStats()));
+        return health;
+    }
+
+    private static final class VenueHealth {
+        private final DexType dex;
+        private final LongSupplier clock;
+        private final Window quotes = new Window();
+        private final Window executions = new Window();
+        private CircuitState state = CircuitState.CLOSED;
+        private long openedAtMillis;
+        private LocalDateTime openedAt;
+        private boolean probeInFlight;
+
+        private VenueHealth(DexType dex, LongSupplier clock) {
+            this.dex = dex;
+            this.clock = clock;
+        }
+
+        private synchronized boolean allowRequest() {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (clock.getAsLong() - openedAtMillis < OPEN_DURATION_MS) {
+                        return false;
+                    }
+                    state = CircuitState.HALF_OPEN;
+                    log.info("Circuit for {} half-open, sending a probe quote", dex);
+                    probeInFlight = true;
+                    return true;
+                default:
+                    if (probeInFlight) {
+                        return false;
+                    }
+                    probeInFlight = true;
+                    return true;
+            }
+        }
+
+        private synchronized void recordQuote(long latencyMs, boolean success) {
+            quotes.add(latencyMs, success);
+            if (state == CircuitState.HALF_OPEN) {
+                // While the breaker is not closed only the probe is let through, so a quote that
+                // started before the breaker opened is a late one and leaves the probe pending
+                if (probeInFlight && clock.getAsLong() - latencyMs >= openedAtMillis) {
+                    settleProbe(success);
+                }
+            } else if (state == CircuitState.CLOSED) {
+                checkFailureRate();
+            }
+        }
+
+        // Swaps are never probes: while the breaker is not closed they only feed the window
+        private synchronized void recordExecution(long latencyMs, boolean success) {
+            executions.add(latencyMs, success);
+            if (state == CircuitState.CLOSED) {
+                checkFailureRate();
+            }
+        }
+
+        private void settleProbe(boolean success) {
+            probeInFlight = false;
+            if (success) {
+                quotes.clear();
+                executions.clear();
+                state = CircuitState.CLOSED;
+                log.info("Circuit for {} closed", dex);
+            } else {
+                open();
+            }
+        }
+
+        private void checkFailureRate() {
+            int samples = quotes.count + executions.count;
+            int failures = quotes.failures() + executions.failures();
+            if (samples >= MIN_SAMPLES && failures > samples * FAILURE_RATE_THRESHOLD) {
+                open();
+            }
+        }
+
+        private void open() {
+            state = CircuitState.OPEN;
+            openedAtMillis = clock.getAsLong();
+            openedAt = LocalDateTime.now();
+            log.warn("Circuit for {} opened: quote success {}, fill probability {}",
+                    dex, quotes.successRate(), fillProbability());
+        }
+
+        // Laplace-smoothed so a venue with no history is neither trusted nor written off
+        private double fillProbability() {
+            return (executions.count - executions.failures() + 1.0) / (executions.count + 2.0);
+        }
+
+        private synchronized VenueHealthStats toStats() {
+            return VenueHealthStats.builder()
+                    .dex(dex)
+                    .circuitState(state)
+                    .quoteSamples(quotes.count)
+                    .executionSamples(executions.count)
+                    .quoteSuccessRate(quotes.successRate())
+                    .fillProbability(fillProbability())
+                    .avgQuoteLatencyMs(quotes.averageLatency())
+                    .avgConfirmationLatencyMs(executions.averageLatency())
+                    .circuitOpenedAt(state == CircuitState.CLOSED ? null : openedAt)
+                    .build();
+        }
+    }
+
+    /**
+     * Last {@link #WINDOW_SIZE} outcomes, oldest overwritten first. Guarded by its venue.
+     */
+    private static final class Window {
+        private final long[] latencies = new long[WINDOW_SIZE];
+        private final boolean[] successes = new boolean[WINDOW_SIZE];
+        private int next;
+        private int count;
+        private long latencyTotal;
+        private int failureCount;
+
+        private void add(long latencyMs, boolean success) {
+            if (count == WINDOW_SIZE) {
+                latencyTotal -= latencies[next];
+                if (!successes[next]) {
+                    failureCount--;
+                }
+            } else {
+                count++;
+            }
+            latencies[next] = latencyMs;
+            successes[next] = success;
+            latencyTotal += latencyMs;
+            if (!success) {
+                failureCount++;
+            }
+            next = (next + 1) % WINDOW_SIZE;
+        }
+
+        private void clear() {
+            next = 0;
+            count = 0;
+            latencyTotal = 0;
+            failureCount = 0;
+        }
+
+        private int failures() {
+            return failureCount;
+        }
+
+        private double successRate() {
+            return count == 0 ? 1.0 : (double) (count - failureCount) / count;
+        }
+
+        private double averageLatency() {
+            return count == 0 ? 0 : (double) latencyTotal / count;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.VenueDraw;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Source of the random numbers behind the mock venues' latencies, prices and landing outcomes.
+ * Draws are recorded while capture is on, and when {@code orders.replay.path} is set they are
+ * played back from that capture, one sequence per draw kind and venue, so replayed traffic
+ * meets the venue behaviour it met in production. Once a sequence runs out it falls back to
+ * fresh random draws.
+ */
+@Service
+@Slf4j
+public class VenueSimulator {
+
+    private static final Random random = new Random();
+
+    private final OrderCaptureService capture;
+    private final double[][] tapes;
+    private final AtomicIntegerArray cursors;
+
+    public VenueSimulator(OrderCaptureService capture, @Value("${orders.replay.path:}") String replayPath) {
+        this.capture = capture;
+        if (replayPath.isBlank()) {
+            this.tapes = null;
+            this.cursors = null;
+            return;
+        }
+        try {
+            this.tapes = OrderCaptureFile.read(Path.of(replayPath)).venueDraws;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read venue draws from " + replayPath, e);
+        }
+        this.cursors = new AtomicIntegerArray(tapes.length);
+        log.info("Mock venues are replaying draws from {}", replayPath);
+    }
+
+    /**
+     * Returns a uniform draw in [0, 1) for one aspect of a venue's response.
+     */
+    public double next(VenueDraw draw, DexType dex) {
+        double value = -1;
+        if (tapes != null) {
+            int tape = OrderCaptureFile.tape(draw, dex);
+            int index = cursors.getAndIncrement(tape);
+            if (index < tapes[tape].length) {
+                value = tapes[tape][index];
+            }
+        }
+        if (value < 0) {
+            value = random.nextDouble();
+        }
+        capture.venueDraw(draw, dex, value);
+        return value;
+    }
+}
@@ -5,7 +5,6 @@ import com.dex.orderengine.model.DexType;
 import com.dex.orderengine.model.Order;
 import com.dex.orderengine.model.OrderStatus;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -14,10 +13,10 @@ import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class WebSocketNotificationService {
 
     private final SimpMessagingTemplate messagingTemplate;
+    private final OrderTraceLog trace;
 
     public void notifyOrderStatus(String orderId, OrderStatus status, String message) {
         WebSocketMessage wsMessage = WebSocketMessage.builder()
@@ -77,13 +76,11 @@ public class WebSocketNotificationService {
     }
 
     private void sendToOrder(String orderId, WebSocketMessage message) {
-        String destination = "/topic/orders/" + orderId;
-        log.debug("Sending WebSocket message to {}: {}", destination, message);
-        messagingTemplate.convertAndSend(destination, message);
+        messagingTemplate.convertAndSend("/topic/orders/" + orderId, message);
     }
 
     private void sendToAll(WebSocketMessage message) {
         messagingTemplate.convertAndSend("/topic/orders", message);
-        log.info("Order {} status update: {} - {}", message.getOrderId(), message.getStatus(), message.getMessage());
+        trace.notified(message.getOrderId(), message.getStatus(), message.getMessage());
     }
 }
@@ -0,0 +1,29 @@
+-- Baseline schema for the orders table, matching the Order entity mapping.
+-- Written with IF NOT EXISTS so databases previously managed by ddl-auto=update
+-- can be baselined at version 0 and still run this migration as a no-op.
+
+CREATE TABLE IF NOT EXISTS orders (
+    id             VARCHAR(255)   NOT NULL,
+    token_in       VARCHAR(255)   NOT NULL,
+    token_out      VARCHAR(255)   NOT NULL,
+    amount         NUMERIC(20, 10) NOT NULL,
+    slippage       NUMERIC(10, 4),
+    order_type     VARCHAR(255)   NOT NULL CHECK (order_type IN ('MARKET', 'LIMIT', 'SNIPER')),
+    status         VARCHAR(255)   NOT NULL CHECK (status IN ('PENDING', 'ROUTING', 'BUILDING', 'SUBMITTED', 'CONFIRMED', 'FAILED')),
+    selected_dex   VARCHAR(255)   CHECK (selected_dex IN ('RAYDIUM', 'METEORA')),
+    executed_price NUMERIC(20, 10),
+    raydium_quote  NUMERIC(20, 10),
+    meteor_quote   NUMERIC(20, 10),
+    tx_hash        VARCHAR(255),
+    error_message  VARCHAR(1000),
+    retry_count    INTEGER,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    updated_at     TIMESTAMP(6),
+    completed_at   TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at_id ON orders (status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_pair_created_at_id ON orders (token_in, token_out, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_dex_created_at_id ON orders (selected_dex, created_at, id);
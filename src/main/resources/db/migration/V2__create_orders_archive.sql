@@ -0,0 +1,9 @@
+-- Archive for terminal orders, range-partitioned by day on created_at.
+-- Daily partitions are created ahead of time by OrderArchiveService; the default
+-- partition only receives rows older than the first dated partition.
+
+CREATE TABLE IF NOT EXISTS orders_archive (LIKE orders INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_id ON orders_archive (id);
+
+CREATE TABLE IF NOT EXISTS orders_archive_default PARTITION OF orders_archive DEFAULT;
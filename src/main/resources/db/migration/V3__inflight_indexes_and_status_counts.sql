@@ -0,0 +1,54 @@
+-- Partial indexes over the non-terminal statuses. They only hold in-flight rows, so
+-- recovery and retry scans stay small no matter how many terminal orders exist.
+-- Queries must name the statuses as literals for the planner to pick these up.
+
+CREATE INDEX IF NOT EXISTS idx_orders_inflight ON orders (created_at, id)
+    WHERE status IN ('PENDING', 'ROUTING', 'BUILDING', 'SUBMITTED');
+
+CREATE INDEX IF NOT EXISTS idx_orders_pending_retry ON orders (retry_count, created_at)
+    WHERE status = 'PENDING';
+
+-- Per-status counters maintained by trigger. Each status is split across 16 slots
+-- (chosen by hashing the order id) so concurrent writers rarely contend on one row.
+-- Transitions decrement the old status, archival deletes do not, so terminal
+-- statuses count every order ever finished while in-flight statuses stay current.
+
+CREATE TABLE IF NOT EXISTS order_status_counts (
+    status      VARCHAR(255) NOT NULL,
+    slot        SMALLINT     NOT NULL,
+    order_count BIGINT       NOT NULL DEFAULT 0,
+    PRIMARY KEY (status, slot)
+);
+
+CREATE OR REPLACE FUNCTION track_order_status_counts() RETURNS trigger AS $$
+DECLARE
+    counter_slot SMALLINT := hashtext(NEW.id) & 15;
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        IF NEW.status IS NOT DISTINCT FROM OLD.status THEN
+            RETURN NEW;
+        END IF;
+        UPDATE order_status_counts
+        SET order_count = order_count - 1
+        WHERE status = OLD.status AND slot = counter_slot;
+    END IF;
+
+    INSERT INTO order_status_counts (status, slot, order_count)
+    VALUES (NEW.status, counter_slot, 1)
+    ON CONFLICT (status, slot) DO UPDATE SET order_count = order_status_counts.order_count + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_orders_status_counts ON orders;
+CREATE TRIGGER trg_orders_status_counts
+    AFTER INSERT OR UPDATE OF status ON orders
+    FOR EACH ROW EXECUTE FUNCTION track_order_status_counts();
+
+TRUNCATE order_status_counts;
+INSERT INTO order_status_counts (status, slot, order_count)
+SELECT status, hashtext(id) & 15, COUNT(*)
+FROM (SELECT id, status FROM orders
+      UNION ALL
+      SELECT id, status FROM orders_archive) existing
+GROUP BY 1, 2;
@@ -0,0 +1,21 @@
+-- Append-only lifecycle log. Each order's events are numbered 1..n by version; the
+-- orders row is a periodic snapshot and records the last version folded into it.
+
+CREATE TABLE IF NOT EXISTS order_events (
+    order_id       VARCHAR(255)    NOT NULL,
+    version        INTEGER         NOT NULL,
+    event_type     VARCHAR(32)     NOT NULL,
+    status         VARCHAR(255)    NOT NULL,
+    selected_dex   VARCHAR(255),
+    raydium_quote  NUMERIC(20, 10),
+    meteor_quote   NUMERIC(20, 10),
+    executed_price NUMERIC(20, 10),
+    tx_hash        VARCHAR(255),
+    retry_count    INTEGER,
+    detail         VARCHAR(1000),
+    occurred_at    TIMESTAMP(6)    NOT NULL,
+    PRIMARY KEY (order_id, version)
+);
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS event_version INTEGER;
+ALTER TABLE orders_archive ADD COLUMN IF NOT EXISTS event_version INTEGER;
@@ -0,0 +1,13 @@
+-- Child swaps of each order, one row per landed venue leg. There is no foreign key to
+-- orders: fills stay in place when their order is moved to orders_archive.
+
+CREATE TABLE IF NOT EXISTS order_fills (
+    order_id       VARCHAR(255)    NOT NULL,
+    fill_index     INTEGER         NOT NULL,
+    dex            VARCHAR(255)    NOT NULL CHECK (dex IN ('RAYDIUM', 'METEORA')),
+    amount_in      NUMERIC(20, 10) NOT NULL,
+    output_amount  NUMERIC(20, 10),
+    executed_price NUMERIC(20, 10),
+    tx_hash        VARCHAR(255),
+    PRIMARY KEY (order_id, fill_index)
+);
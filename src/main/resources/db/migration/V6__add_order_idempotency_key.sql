@@ -0,0 +1,8 @@
+-- Client-supplied Idempotency-Key of the submission that created the order. The unique
+-- index backs up the in-memory dedup index across restarts; NULL keys never collide.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_orders_idempotency_key ON orders (idempotency_key);
+
+ALTER TABLE orders_archive ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(255);
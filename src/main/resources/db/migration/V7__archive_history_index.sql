@@ -0,0 +1,4 @@
+-- Lets the history API walk archived orders newest first, one partition at a time,
+-- with the same (created_at, id) keyset it uses on the orders table.
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_created_at_id ON orders_archive (created_at, id);
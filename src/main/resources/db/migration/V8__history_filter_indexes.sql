@@ -0,0 +1,11 @@
+-- Composite indexes for every filter the history API accepts, so each one walks an index in
+-- (created_at, id) keyset order instead of scanning. The orders table already covers status,
+-- the token pair and the DEX; token_out on its own cannot use the pair index. The archive only
+-- had the unfiltered keyset index, so it gets the full set, created on each daily partition.
+
+CREATE INDEX IF NOT EXISTS idx_orders_token_out_created_at_id ON orders (token_out, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_orders_archive_status_created_at_id ON orders_archive (status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_pair_created_at_id ON orders_archive (token_in, token_out, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_token_out_created_at_id ON orders_archive (token_out, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_dex_created_at_id ON orders_archive (selected_dex, created_at, id);
@@ -1,7 +1,9 @@
 package com.dex.orderengine;
 
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest
 class OrderExecutionEngineApplicationTests {
@@ -10,4 +12,22 @@ class OrderExecutionEngineApplicationTests {
 	void contextLoads() {
 	}
 
+	@Nested
+	@TestPropertySource(properties = "orders.engine=reactive")
+	class ReactiveEngine {
+
+		@Test
+		void contextLoads() {
+		}
+	}
+
+	@Nested
+	@TestPropertySource(properties = "orders.engine=staged")
+	class StagedEngine {
+
+		@Test
+		void contextLoads() {
+		}
+	}
+
 }
@@ -0,0 +1,36 @@
+package com.dex.orderengine.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OrderStatusTest {
+
+	private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED = Map.of(
+			OrderStatus.PENDING, EnumSet.of(OrderStatus.ROUTING, OrderStatus.PENDING, OrderStatus.FAILED),
+			OrderStatus.ROUTING, EnumSet.of(OrderStatus.BUILDING, OrderStatus.PENDING, OrderStatus.FAILED),
+			OrderStatus.BUILDING, EnumSet.of(OrderStatus.SUBMITTED, OrderStatus.PENDING, OrderStatus.FAILED),
+			OrderStatus.SUBMITTED, EnumSet.of(OrderStatus.CONFIRMED, OrderStatus.PENDING, OrderStatus.FAILED),
+			OrderStatus.CONFIRMED, EnumSet.noneOf(OrderStatus.class),
+			OrderStatus.FAILED, EnumSet.noneOf(OrderStatus.class));
+
+	@Test
+	void allowsExactlyTheDocumentedTransitions() {
+		for (OrderStatus from : OrderStatus.values()) {
+			for (OrderStatus to : OrderStatus.values()) {
+				assertEquals(ALLOWED.get(from).contains(to), from.canTransitionTo(to), from + " -> " + to);
+			}
+		}
+	}
+
+	@Test
+	void onlyTerminalStatusesHaveNoWayOut() {
+		for (OrderStatus status : OrderStatus.values()) {
+			assertEquals(ALLOWED.get(status).isEmpty(), status.isTerminal(), status.name());
+		}
+	}
+}
@@ -0,0 +1,19 @@
+package com.dex.orderengine.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+class BlockingOrderPipelineTest extends OrderPipelineTestSupport {
+
+	private final ExecutorService orderExecutor = Executors.newCachedThreadPool();
+
+	@Override
+	protected OrderPipeline createPipeline() {
+		return new BlockingOrderPipeline(orderExecutor, dexRoutingService, splitRouter, lifecycle, confirmationTracker);
+	}
+
+	@Override
+	protected void shutdown(OrderPipeline pipeline) {
+		orderExecutor.shutdownNow();
+	}
+}
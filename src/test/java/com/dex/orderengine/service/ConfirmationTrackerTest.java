@@ -0,0 +1,177 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.ExecutionResult;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConfirmationTrackerTest {
+
+	private final MockChainStatusService chainStatusService = mock(MockChainStatusService.class);
+	private final OrderLifecycle lifecycle = mock(OrderLifecycle.class);
+	private final VenueHealthTracker venueHealth = mock(VenueHealthTracker.class);
+	private final AtomicLong now = new AtomicLong(1_000_000);
+	private final ConfirmationTracker tracker =
+			new ConfirmationTracker(chainStatusService, lifecycle, venueHealth, now::get);
+
+	// Transactions that have resolved; anything else is reported as still pending
+	private final Map<String, ExecutionResult> chain = new HashMap<>();
+	private final List<String> failures = new ArrayList<>();
+	private final Order order = Order.builder().id("order-1").status(OrderStatus.SUBMITTED).build();
+
+	@BeforeEach
+	void setUp() {
+		when(chainStatusService.getStatuses(any())).thenAnswer(invocation -> {
+			Collection<String> txHashes = invocation.getArgument(0);
+			Map<String, ExecutionResult> statuses = new HashMap<>();
+			for (String txHash : txHashes) {
+				if (chain.containsKey(txHash)) {
+					statuses.put(txHash, chain.get(txHash));
+				}
+			}
+			return statuses;
+		});
+	}
+
+	@Test
+	void landedTransactionFillsAndConfirmsTheOrder() {
+		tracker.track(order, List.of(leg(DexType.RAYDIUM)), List.of("tx-1"), failures::add);
+
+		tracker.pollConfirmations();
+		verify(lifecycle, never()).confirmed(any());
+
+		ExecutionResult result = landed("tx-1", DexType.RAYDIUM);
+		chain.put("tx-1", result);
+		tracker.pollConfirmations();
+
+		verify(lifecycle).filled(order, result);
+		verify(lifecycle).confirmed(order);
+		verify(venueHealth).recordExecution(eq(DexType.RAYDIUM), anyLong(), eq(true));
+		assertTrue(failures.isEmpty());
+		assertEquals(0, tracker.getPendingCount());
+	}
+
+	@Test
+	void failedTransactionCallsOnFailure() {
+		tracker.track(order, List.of(leg(DexType.METEORA)), List.of("tx-1"), failures::add);
+		chain.put("tx-1", failed("tx-1", "Slippage exceeded"));
+
+		tracker.pollConfirmations();
+
+		assertEquals(List.of("Slippage exceeded"), failures);
+		verify(lifecycle, never()).confirmed(any());
+		verify(venueHealth).recordExecution(eq(DexType.METEORA), anyLong(), eq(false));
+	}
+
+	@Test
+	void transactionThatNeverLandsTimesOut() {
+		tracker.track(order, List.of(leg(DexType.RAYDIUM)), List.of("tx-1"), failures::add);
+
+		now.addAndGet(ConfirmationTracker.CONFIRMATION_TIMEOUT_MS - 1);
+		tracker.pollConfirmations();
+		assertTrue(failures.isEmpty());
+
+		now.incrementAndGet();
+		tracker.pollConfirmations();
+
+		assertEquals(1, failures.size());
+		assertTrue(failures.get(0).startsWith("Transaction was not confirmed"));
+		assertEquals(0, tracker.getPendingCount());
+	}
+
+	@Test
+	void multiLegOrderCompletesOnlyOnceEveryLegHasResolved() {
+		tracker.track(order, List.of(leg(DexType.RAYDIUM), leg(DexType.METEORA)), List.of("tx-1", "tx-2"),
+				failures::add);
+
+		chain.put("tx-1", landed("tx-1", DexType.RAYDIUM));
+		tracker.pollConfirmations();
+		verify(lifecycle, times(1)).filled(any(), any());
+		verify(lifecycle, never()).confirmed(any());
+
+		chain.put("tx-2", landed("tx-2", DexType.METEORA));
+		tracker.pollConfirmations();
+		verify(lifecycle, times(2)).filled(any(), any());
+		verify(lifecycle).confirmed(order);
+	}
+
+	@Test
+	void multiLegOrderWithAFailedLegKeepsTheLandedFillAndRetries() {
+		tracker.track(order, List.of(leg(DexType.RAYDIUM), leg(DexType.METEORA)), List.of("tx-1", "tx-2"),
+				failures::add);
+		chain.put("tx-1", failed("tx-1", "Pool moved"));
+		chain.put("tx-2", landed("tx-2", DexType.METEORA));
+
+		tracker.pollConfirmations();
+
+		verify(lifecycle).filled(eq(order), any());
+		verify(lifecycle, never()).confirmed(any());
+		assertEquals(List.of("Pool moved"), failures);
+	}
+
+	@Test
+	void throwingCompletionFailsTheOrderInsteadOfStrandingIt() {
+		doThrow(new IllegalStateException("boom")).when(lifecycle).confirmed(order);
+		tracker.track(order, List.of(leg(DexType.RAYDIUM)), List.of("tx-1"), failures::add);
+		chain.put("tx-1", landed("tx-1", DexType.RAYDIUM));
+
+		tracker.pollConfirmations();
+
+		verify(lifecycle).abort(eq(order), anyString());
+		assertEquals(0, tracker.getPendingCount());
+	}
+
+	@Test
+	void resumedTransactionsTakeTheirVenueFromTheResult() {
+		tracker.resume(order, List.of("tx-1"), failures::add);
+		chain.put("tx-1", landed("tx-1", DexType.METEORA));
+
+		tracker.pollConfirmations();
+
+		verify(venueHealth).recordExecution(eq(DexType.METEORA), anyLong(), eq(true));
+		verify(lifecycle).confirmed(order);
+	}
+
+	private static DexQuote leg(DexType dex) {
+		return DexQuote.builder().dexType(dex).amountIn(BigDecimal.TEN).price(BigDecimal.valueOf(97)).build();
+	}
+
+	private static ExecutionResult landed(String txHash, DexType dex) {
+		return ExecutionResult.builder()
+				.success(true)
+				.txHash(txHash)
+				.dex(dex)
+				.amountIn(BigDecimal.TEN)
+				.outputAmount(BigDecimal.valueOf(970))
+				.executedPrice(BigDecimal.valueOf(97))
+				.build();
+	}
+
+	private static ExecutionResult failed(String txHash, String errorMessage) {
+		return ExecutionResult.builder().success(false).txHash(txHash).errorMessage(errorMessage).build();
+	}
+}
@@ -0,0 +1,80 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.exception.IdempotencyKeyMismatchException;
+import com.dex.orderengine.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyIndexTest {
+
+	private final IdempotencyIndex index = new IdempotencyIndex();
+
+	@Test
+	void firstClaimOwnsTheKeyAndLaterClaimsReplayItsResponse() throws Exception {
+		assertTrue(index.claim("key", request("1.5")).isEmpty());
+
+		Optional<CompletableFuture<OrderResponse>> duplicate = index.claim("key", request("1.5"));
+		assertTrue(duplicate.isPresent());
+		assertFalse(duplicate.get().isDone());
+
+		OrderResponse response = OrderResponse.builder().orderId("order-1").status(OrderStatus.PENDING).build();
+		index.complete("key", response);
+
+		assertSame(response, duplicate.get().get());
+		assertSame(response, index.claim("key", request("1.5")).orElseThrow().get());
+	}
+
+	@Test
+	void differentRequestWithTheSameKeyIsRejected() {
+		index.claim("key", request("1.5"));
+
+		assertThrows(IdempotencyKeyMismatchException.class, () -> index.claim("key", request("2")));
+	}
+
+	@Test
+	void amountsAreComparedByValueNotScale() {
+		index.claim("key", request("1.0"));
+
+		assertTrue(index.claim("key", request("1.00")).isPresent());
+	}
+
+	@Test
+	void releasedKeyCanBeClaimedAgain() {
+		index.claim("key", request("1.5"));
+		CompletableFuture<OrderResponse> waiting = index.claim("key", request("1.5")).orElseThrow();
+
+		index.release("key", new IllegalStateException("Queue is full"));
+
+		ExecutionException error = assertThrows(ExecutionException.class, waiting::get);
+		assertTrue(error.getCause() instanceof IllegalStateException);
+		assertTrue(index.claim("key", request("1.5")).isEmpty());
+	}
+
+	@Test
+	void releasedKeyMayBeReusedForADifferentRequest() {
+		index.claim("key", request("1.5"));
+		index.release("key", new IllegalStateException("Queue is full"));
+
+		assertTrue(index.claim("key", request("2")).isEmpty());
+	}
+
+	private static OrderRequest request(String amount) {
+		return OrderRequest.builder()
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(new BigDecimal(amount))
+				.slippage(new BigDecimal("0.01"))
+				.build();
+	}
+}
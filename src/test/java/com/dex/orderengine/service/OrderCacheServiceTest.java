@@ -0,0 +1,122 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderCacheServiceTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final OrderCacheService cache = new OrderCacheService(now::get);
+
+	@Test
+	void activeOrderExpiresAfterActiveTtl() {
+		cache.update(order("a", OrderStatus.ROUTING, 2));
+
+		now.addAndGet(OrderCacheService.ACTIVE_TTL_NANOS);
+		assertTrue(cache.get("a").isPresent());
+
+		now.incrementAndGet();
+		assertFalse(cache.get("a").isPresent());
+	}
+
+	@Test
+	void terminalOrderExpiresAfterTerminalTtl() {
+		cache.update(order("a", OrderStatus.CONFIRMED, 6));
+
+		now.addAndGet(OrderCacheService.TERMINAL_TTL_NANOS + 1);
+		assertFalse(cache.get("a").isPresent());
+	}
+
+	@Test
+	void evictExpiredDropsOnlyExpiredEntries() {
+		cache.update(order("terminal", OrderStatus.FAILED, 3));
+		cache.update(order("active", OrderStatus.BUILDING, 3));
+
+		now.addAndGet(OrderCacheService.TERMINAL_TTL_NANOS + 1);
+		cache.evictExpired();
+
+		assertFalse(cache.get("terminal").isPresent());
+		assertTrue(cache.get("active").isPresent());
+	}
+
+	@Test
+	void evictsOldestEntriesBeyondCapacity() {
+		for (int i = 0; i <= OrderCacheService.MAX_CACHED_ORDERS; i++) {
+			cache.update(order("order-" + i, OrderStatus.PENDING, 1));
+		}
+
+		assertFalse(cache.get("order-0").isPresent());
+		assertTrue(cache.get("order-1").isPresent());
+		assertTrue(cache.get("order-" + OrderCacheService.MAX_CACHED_ORDERS).isPresent());
+	}
+
+	@Test
+	void refreshingAnEntryDoesNotCountAgainstCapacity() {
+		cache.update(order("first", OrderStatus.PENDING, 1));
+		for (int i = 2; i <= 5; i++) {
+			cache.update(order("first", OrderStatus.PENDING, i));
+		}
+		for (int i = 1; i < OrderCacheService.MAX_CACHED_ORDERS; i++) {
+			cache.update(order("order-" + i, OrderStatus.PENDING, 1));
+		}
+
+		assertTrue(cache.get("first").isPresent());
+	}
+
+	@Test
+	void overflowSkipsThePositionAReinsertedEntryLeftBehind() {
+		cache.update(order("first", OrderStatus.CONFIRMED, 6));
+		now.addAndGet(OrderCacheService.TERMINAL_TTL_NANOS + 1);
+		assertFalse(cache.get("first").isPresent());
+
+		for (int i = 1; i < OrderCacheService.MAX_CACHED_ORDERS; i++) {
+			cache.update(order("order-" + i, OrderStatus.PENDING, 1));
+		}
+		// Cached again after expiring, e.g. a status poll reading it back from the database
+		cache.update(order("first", OrderStatus.CONFIRMED, 6));
+		cache.update(order("overflow", OrderStatus.PENDING, 1));
+
+		assertTrue(cache.get("first").isPresent());
+		assertFalse(cache.get("order-1").isPresent());
+		assertTrue(cache.get("order-2").isPresent());
+	}
+
+	@Test
+	void staleReadDoesNotOverwriteNewerSnapshot() {
+		cache.update(order("a", OrderStatus.SUBMITTED, 5));
+
+		// A repository read of an older snapshot racing with the pipeline
+		assertEquals(OrderStatus.SUBMITTED, cache.update(order("a", OrderStatus.ROUTING, 2)).getStatus());
+		assertEquals(OrderStatus.SUBMITTED, cache.get("a").orElseThrow().getStatus());
+	}
+
+	@Test
+	void newerVersionReplacesCachedSnapshot() {
+		cache.update(order("a", OrderStatus.SUBMITTED, 5));
+		cache.update(order("a", OrderStatus.CONFIRMED, 6));
+
+		assertEquals(OrderStatus.CONFIRMED, cache.get("a").orElseThrow().getStatus());
+	}
+
+	private static Order order(String id, OrderStatus status, int eventVersion) {
+		return Order.builder()
+				.id(id)
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(BigDecimal.TEN)
+				.orderType(OrderType.MARKET)
+				.status(status)
+				.retryCount(0)
+				.eventVersion(eventVersion)
+				.build();
+	}
+}
@@ -0,0 +1,159 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderFill;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.VenueDraw;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderCaptureFileTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void readsBackWhatTheCaptureWrote() throws IOException {
+		Path path = dir.resolve("capture.bin");
+		OrderCaptureService capture = new OrderCaptureService(path.toString());
+		long first = capture.requestReceived(System.nanoTime(), request("1.5", "0.01"), "key-1");
+		long second = capture.requestReceived(System.nanoTime(), request("2", null), null);
+		capture.requestAnswered(second, response(null, OrderStatus.FAILED));
+		capture.requestAnswered(first, response("order-1", OrderStatus.PENDING));
+		capture.venueDraw(VenueDraw.QUOTE_PRICE, DexType.METEORA, 0.25);
+		capture.venueDraw(VenueDraw.QUOTE_PRICE, DexType.METEORA, 0.75);
+		capture.venueDraw(VenueDraw.SLIPPAGE, DexType.RAYDIUM, 0.5);
+		capture.orderFinished(finished("order-1", OrderStatus.CONFIRMED, new BigDecimal("97.125"), 2));
+		capture.close();
+
+		OrderCaptureFile.Capture read = OrderCaptureFile.read(path);
+
+		assertEquals(2, read.orders.size());
+		OrderCaptureFile.CapturedOrder accepted = read.orders.get(0);
+		assertEquals("SOL", accepted.request.getTokenIn());
+		assertEquals("USDC", accepted.request.getTokenOut());
+		assertEquals(new BigDecimal("1.5"), accepted.request.getAmount());
+		assertEquals(new BigDecimal("0.01"), accepted.request.getSlippage());
+		assertEquals("key-1", accepted.idempotencyKey);
+		assertEquals("order-1", accepted.orderId);
+		assertEquals(OrderStatus.PENDING, accepted.acceptedStatus);
+		assertEquals(OrderStatus.CONFIRMED, accepted.outcome.status);
+		assertEquals(new BigDecimal("97.125"), accepted.outcome.executedPrice);
+		assertEquals(2, accepted.outcome.fills);
+
+		OrderCaptureFile.CapturedOrder rejected = read.orders.get(1);
+		assertNull(rejected.request.getSlippage());
+		assertNull(rejected.idempotencyKey);
+		assertNull(rejected.orderId);
+		assertEquals(OrderStatus.FAILED, rejected.acceptedStatus);
+		assertNull(rejected.error);
+		assertNull(rejected.outcome);
+		assertTrue(rejected.offsetNanos >= accepted.offsetNanos);
+
+		assertArrayEquals(new double[]{0.25, 0.75},
+				read.venueDraws[OrderCaptureFile.tape(VenueDraw.QUOTE_PRICE, DexType.METEORA)]);
+		assertArrayEquals(new double[]{0.5}, read.venueDraws[OrderCaptureFile.tape(VenueDraw.SLIPPAGE, DexType.RAYDIUM)]);
+		assertArrayEquals(new double[0], read.venueDraws[OrderCaptureFile.tape(VenueDraw.SLIPPAGE, DexType.METEORA)]);
+	}
+
+	@Test
+	void keepsRequestsWhoseSubmissionThrewOrWasNeverAnswered() throws IOException {
+		Path path = dir.resolve("capture.bin");
+		OrderCaptureService capture = new OrderCaptureService(path.toString());
+		long failed = capture.requestReceived(System.nanoTime(), request("1", "0.01"), "key-1");
+		capture.requestReceived(System.nanoTime(), request("2", "0.01"), "key-2");
+		capture.requestFailed(failed, new IllegalStateException("database unavailable"));
+		capture.close();
+
+		OrderCaptureFile.Capture read = OrderCaptureFile.read(path);
+
+		assertEquals(2, read.orders.size());
+		OrderCaptureFile.CapturedOrder threw = read.orders.get(0);
+		assertEquals("IllegalStateException", threw.error);
+		assertNull(threw.orderId);
+		assertNull(threw.acceptedStatus);
+		OrderCaptureFile.CapturedOrder unanswered = read.orders.get(1);
+		assertEquals("key-2", unanswered.idempotencyKey);
+		assertNull(unanswered.error);
+		assertNull(unanswered.acceptedStatus);
+	}
+
+	@Test
+	void capturesNothingWhenOff() {
+		OrderCaptureService capture = new OrderCaptureService("");
+
+		assertEquals(-1, capture.requestReceived(System.nanoTime(), request("1", null), null));
+		assertFalse(capture.isRecording());
+	}
+
+	@Test
+	void ignoresATruncatedLastRecord() throws IOException {
+		Path path = dir.resolve("capture.bin");
+		OrderCaptureService capture = new OrderCaptureService(path.toString());
+		capture.requestAnswered(capture.requestReceived(System.nanoTime(), request("1.5", "0.01"), "key-1"),
+				response("order-1", OrderStatus.PENDING));
+		capture.venueDraw(VenueDraw.QUOTE_PRICE, DexType.RAYDIUM, 0.25);
+		capture.requestReceived(System.nanoTime(), request("2", "0.01"), "key-2");
+		capture.close();
+
+		// Cut the last request record off partway through
+		long complete = Files.size(path);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(complete - 20);
+		}
+
+		OrderCaptureFile.Capture read = OrderCaptureFile.read(path);
+
+		assertEquals(1, read.orders.size());
+		assertEquals("order-1", read.orders.get(0).orderId);
+		assertArrayEquals(new double[]{0.25}, read.venueDraws[OrderCaptureFile.tape(VenueDraw.QUOTE_PRICE, DexType.RAYDIUM)]);
+	}
+
+	@Test
+	void rejectsAFileThatIsNotACapture() throws IOException {
+		Path path = dir.resolve("capture.bin");
+		Files.writeString(path, "not a capture file");
+
+		assertThrows(IOException.class, () -> OrderCaptureFile.read(path));
+	}
+
+	private static OrderRequest request(String amount, String slippage) {
+		return OrderRequest.builder()
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(new BigDecimal(amount))
+				.slippage(slippage == null ? null : new BigDecimal(slippage))
+				.build();
+	}
+
+	private static OrderResponse response(String orderId, OrderStatus status) {
+		return OrderResponse.builder().orderId(orderId).status(status).build();
+	}
+
+	private static Order finished(String id, OrderStatus status, BigDecimal executedPrice, int fills) {
+		List<OrderFill> orderFills = new ArrayList<>();
+		for (int i = 0; i < fills; i++) {
+			orderFills.add(new OrderFill());
+		}
+		return Order.builder().id(id).status(status).executedPrice(executedPrice).fills(orderFills).build();
+	}
+}
@@ -0,0 +1,233 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEvent;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import com.dex.orderengine.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OrderEventLogTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final OrderEventLog eventLog = new OrderEventLog(jdbcTemplate, 1);
+	private final List<List<OrderEvent>> inserted = new ArrayList<>();
+	private final List<List<OrderEvent>> statusUpdates = new ArrayList<>();
+
+	private boolean started;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (started) {
+			eventLog.stop();
+		}
+	}
+
+	@Test
+	void drainsQueuedEventsInBatchesOfAtMostMaxBatchSize() throws Exception {
+		recordWrites(0, null);
+		List<OrderEvent> appended = appendEvents(2 * OrderEventLog.MAX_BATCH_SIZE + 200);
+
+		startWriter();
+
+		assertTrue(eventLog.flush(5000));
+		assertEquals(List.of(OrderEventLog.MAX_BATCH_SIZE, OrderEventLog.MAX_BATCH_SIZE, 200),
+				inserted.stream().map(List::size).toList());
+		assertEquals(appended, inserted.stream().flatMap(List::stream).toList());
+	}
+
+	@Test
+	void updatesEachOrderOnceWithTheLastStatusOfTheBatch() throws Exception {
+		recordWrites(0, null);
+		Order first = order("first");
+		Order second = order("second");
+		eventLog.append(first, OrderEventType.CREATED, null);
+		eventLog.append(first, OrderEventType.ROUTING_STARTED, null);
+		second.setStatus(OrderStatus.ROUTING);
+		eventLog.append(second, OrderEventType.ROUTING_STARTED, null);
+		first.setStatus(OrderStatus.BUILDING);
+		OrderEvent lastOfFirst = eventLog.append(first, OrderEventType.BUILDING_STARTED, null);
+		OrderEvent lastOfSecond = eventLog.append(second, OrderEventType.ROUTE_SELECTED, null);
+
+		startWriter();
+
+		assertTrue(eventLog.flush(5000));
+		List<OrderEvent> updates = statusUpdates.get(0);
+		assertEquals(2, updates.size());
+		assertEquals(lastOfFirst, updates.get(0));
+		assertEquals(3, updates.get(0).getVersion());
+		assertEquals(OrderStatus.ROUTING, updates.get(1).getStatus());
+		assertEquals(1, updates.get(1).getVersion());
+		assertEquals(2, lastOfSecond.getVersion());
+	}
+
+	@Test
+	void retriesTransientFailuresUntilTheBatchIsWritten() throws Exception {
+		recordWrites(OrderEventLog.MAX_WRITE_ATTEMPTS - 1, () -> new TransientDataAccessResourceException("reset"));
+		appendEvents(10);
+
+		startWriter();
+
+		assertTrue(eventLog.flush(5000));
+		assertEquals(OrderEventLog.MAX_WRITE_ATTEMPTS, inserted.size());
+		assertEquals(0, eventLog.getDroppedCount());
+	}
+
+	@Test
+	void dropsABatchThatKeepsFailingTransientlyAndMovesOn() throws Exception {
+		recordWrites(OrderEventLog.MAX_WRITE_ATTEMPTS, () -> new TransientDataAccessResourceException("reset"));
+		appendEvents(10);
+		startWriter();
+		assertTrue(eventLog.flush(5000));
+
+		OrderEvent next = eventLog.append(order("next"), OrderEventType.CREATED, null);
+
+		assertTrue(eventLog.flush(5000));
+		assertEquals(10, eventLog.getDroppedCount());
+		assertEquals(OrderEventLog.MAX_WRITE_ATTEMPTS + 1, inserted.size());
+		assertEquals(List.of(next), inserted.get(inserted.size() - 1));
+	}
+
+	@Test
+	void dropsOnlyTheEventsARejectedBatchCannotWrite() throws Exception {
+		doAnswer(invocation -> {
+			List<OrderEvent> events = events(invocation.getArgument(1));
+			if (events.stream().anyMatch(event -> event.getOrderId().equals("poison"))) {
+				throw new DataIntegrityViolationException("value too long");
+			}
+			inserted.add(events);
+			return new int[0][];
+		}).when(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any());
+		OrderEvent before = eventLog.append(order("before"), OrderEventType.CREATED, null);
+		eventLog.append(order("poison"), OrderEventType.CREATED, null);
+		OrderEvent after = eventLog.append(order("after"), OrderEventType.CREATED, null);
+
+		startWriter();
+
+		assertTrue(eventLog.flush(5000));
+		assertEquals(1, eventLog.getDroppedCount());
+		assertEquals(List.of(List.of(before), List.of(after)), inserted);
+	}
+
+	/**
+	 * Records each insert and status batch, failing the first {@code failures} inserts.
+	 */
+	private void recordWrites(int failures, Supplier<RuntimeException> failure) {
+		AtomicInteger failuresLeft = new AtomicInteger(failures);
+		doAnswer(invocation -> {
+			inserted.add(events(invocation.getArgument(1)));
+			if (failuresLeft.getAndDecrement() > 0) {
+				throw failure.get();
+			}
+			return new int[0][];
+		}).when(jdbcTemplate).batchUpdate(startsWith("INSERT"), anyCollection(), anyInt(), any());
+		doAnswer(invocation -> {
+			statusUpdates.add(events(invocation.getArgument(1)));
+			return new int[0][];
+		}).when(jdbcTemplate).batchUpdate(startsWith("UPDATE"), anyCollection(), anyInt(), any());
+	}
+
+	private void startWriter() {
+		eventLog.start();
+		started = true;
+	}
+
+	private List<OrderEvent> appendEvents(int count) {
+		List<OrderEvent> appended = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			appended.add(eventLog.append(order("order-" + (i % 7)), OrderEventType.CREATED, null));
+		}
+		return appended;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<OrderEvent> events(Object batch) {
+		return new ArrayList<>((Collection<OrderEvent>) batch);
+	}
+
+	private static Order order(String id) {
+		return Order.builder()
+				.id(id)
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(BigDecimal.TEN)
+				.orderType(OrderType.MARKET)
+				.status(OrderStatus.PENDING)
+				.retryCount(0)
+				.eventVersion(0)
+				.build();
+	}
+
+	@Nested
+	@SpringBootTest
+	class StatusColumn {
+
+		@Autowired
+		private OrderEventLog liveLog;
+
+		@Autowired
+		private OrderRepository orderRepository;
+
+		@Autowired
+		private JdbcTemplate jdbc;
+
+		@Test
+		void isNotMovedBackByAnEventOlderThanTheRowsSnapshot() throws Exception {
+			Order order = orderRepository.save(Order.builder()
+					.tokenIn("SOL")
+					.tokenOut("USDC")
+					.amount(BigDecimal.TEN)
+					.orderType(OrderType.MARKET)
+					.status(OrderStatus.PENDING)
+					.retryCount(0)
+					.eventVersion(0)
+					.build());
+			try {
+				jdbc.update("UPDATE orders SET status = 'CONFIRMED', event_version = 5 WHERE id = ?", order.getId());
+
+				order.setEventVersion(2);
+				order.setStatus(OrderStatus.ROUTING);
+				liveLog.append(order, OrderEventType.ROUTING_STARTED, null);
+				assertTrue(liveLog.flush(5000));
+				assertEquals("CONFIRMED", status(order));
+
+				order.setEventVersion(5);
+				order.setStatus(OrderStatus.FAILED);
+				liveLog.append(order, OrderEventType.FAILED, "reverted");
+				assertTrue(liveLog.flush(5000));
+				assertEquals("FAILED", status(order));
+			} finally {
+				jdbc.update("DELETE FROM order_events WHERE order_id = ?", order.getId());
+				jdbc.update("DELETE FROM orders WHERE id = ?", order.getId());
+			}
+		}
+
+		private String status(Order order) {
+			return jdbc.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, order.getId());
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.dto.OrderResponse;
+import com.dex.orderengine.exception.IdempotencyKeyMismatchException;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderExecutionServiceTest {
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final OrderQueueService queueService = mock(OrderQueueService.class);
+	private final OrderEngineLifecycle engineLifecycle = mock(OrderEngineLifecycle.class);
+	private final IdempotencyIndex idempotencyIndex = new IdempotencyIndex();
+	private final OrderExecutionService service = new OrderExecutionService(orderRepository, queueService,
+			mock(WebSocketNotificationService.class), mock(OrderCacheService.class), mock(OrderEventLog.class),
+			mock(OrderStatsService.class), mock(OrderLifecycle.class), new OrderStateMachine(),
+			mock(OrderPipeline.class), idempotencyIndex, engineLifecycle);
+
+	private final AtomicInteger ids = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		when(engineLifecycle.isAccepting()).thenReturn(true);
+		when(orderRepository.save(any())).thenAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			order.setId("order-" + ids.incrementAndGet());
+			return order;
+		});
+	}
+
+	@Test
+	void queueFullRejectionFreesTheKeyForARetry() {
+		when(queueService.enqueue(any())).thenReturn(false).thenReturn(true);
+
+		OrderResponse rejected = service.submitOrder(request("1.5"), "key");
+		assertEquals(OrderStatus.FAILED, rejected.getStatus());
+		verify(orderRepository).clearIdempotencyKey(rejected.getOrderId());
+
+		OrderResponse retried = service.submitOrder(request("1.5"), "key");
+
+		assertEquals(OrderStatus.PENDING, retried.getStatus());
+		assertNotEquals(rejected.getOrderId(), retried.getOrderId());
+		verify(orderRepository, times(2)).save(any());
+	}
+
+	@Test
+	void acceptedOrderIsReplayedForTheSameKey() {
+		when(queueService.enqueue(any())).thenReturn(true);
+
+		OrderResponse first = service.submitOrder(request("1.5"), "key");
+		OrderResponse second = service.submitOrder(request("1.50"), "key");
+
+		assertEquals(first.getOrderId(), second.getOrderId());
+		verify(orderRepository, times(1)).save(any());
+	}
+
+	@Test
+	void keyStoredOnlyInTheDatabaseIsCheckedAgainstTheRequest() {
+		// The index lost the key (restart); the unique constraint catches the reuse
+		doThrow(new DataIntegrityViolationException("idempotency_key")).when(orderRepository).save(any());
+		when(orderRepository.findByIdempotencyKey("key")).thenReturn(Optional.of(Order.builder()
+				.id("order-1").tokenIn("SOL").tokenOut("USDC").amount(new BigDecimal("1.5"))
+				.slippage(new BigDecimal("0.01")).build()));
+
+		assertThrows(IdempotencyKeyMismatchException.class, () -> service.submitOrder(request("2"), "key"));
+	}
+
+	private static OrderRequest request(String amount) {
+		return OrderRequest.builder()
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(new BigDecimal(amount))
+				.slippage(new BigDecimal("0.01"))
+				.build();
+	}
+}
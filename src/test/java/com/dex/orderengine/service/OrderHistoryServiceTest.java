@@ -0,0 +1,175 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.OrderHistoryFilter;
+import com.dex.orderengine.dto.OrderHistoryPage;
+import com.dex.orderengine.dto.OrderSummary;
+import com.dex.orderengine.exception.InvalidCursorException;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import com.dex.orderengine.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OrderHistoryServiceTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0, 0, 123_456_000);
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final OrderHistoryService historyService = new OrderHistoryService(orderRepository);
+	private final OrderHistoryFilter filter = new OrderHistoryFilter();
+
+	@Test
+	void nextCursorResumesAfterTheLastOrderOfThePage() {
+		List<OrderSummary> rows = List.of(summary("c", NOW), summary("b", NOW.minusSeconds(1)),
+				summary("a", NOW.minusSeconds(2)));
+		when(orderRepository.findHistory(filter, null, null, 3)).thenReturn(rows);
+
+		OrderHistoryPage first = historyService.getHistory(filter, null, 2);
+
+		assertTrue(first.isHasMore());
+		assertEquals(rows.subList(0, 2), first.getOrders());
+		assertNotNull(first.getNextCursor());
+
+		when(orderRepository.findHistory(filter, NOW.minusSeconds(1), "b", 3)).thenReturn(rows.subList(2, 3));
+		OrderHistoryPage second = historyService.getHistory(filter, first.getNextCursor(), 2);
+
+		assertFalse(second.isHasMore());
+		assertNull(second.getNextCursor());
+		assertEquals(rows.subList(2, 3), second.getOrders());
+	}
+
+	@Test
+	void cursorKeepsOrderIdsThatContainTheSeparator() {
+		when(orderRepository.findHistory(filter, null, null, 2))
+				.thenReturn(List.of(summary("a|1", NOW), summary("a|0", NOW)));
+		String cursor = historyService.getHistory(filter, null, 1).getNextCursor();
+
+		historyService.getHistory(filter, cursor, 1);
+
+		verify(orderRepository).findHistory(filter, NOW, "a|1", 2);
+	}
+
+	@Test
+	void rejectsTamperedCursorsWithoutQuerying() {
+		for (String cursor : List.of("not base64!", encode("no-separator"), encode("yesterday|id"),
+				encode("|id"))) {
+			assertThrows(InvalidCursorException.class, () -> historyService.getHistory(filter, cursor, 10), cursor);
+		}
+		verify(orderRepository, never()).findHistory(any(), any(), any(), anyInt());
+	}
+
+	@Test
+	void blankCursorStartsFromTheNewestOrder() {
+		when(orderRepository.findHistory(eq(filter), isNull(), isNull(), anyInt())).thenReturn(List.of());
+
+		assertTrue(historyService.getHistory(filter, " ", null).getOrders().isEmpty());
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static OrderSummary summary(String id, LocalDateTime createdAt) {
+		return new OrderSummary(id, "SOL", "USDC", BigDecimal.ONE, OrderType.MARKET, OrderStatus.CONFIRMED,
+				null, null, null, createdAt, null);
+	}
+
+	@Nested
+	@SpringBootTest
+	@AutoConfigureMockMvc
+	class AgainstTheDatabase {
+
+		@Autowired
+		private OrderHistoryService liveHistory;
+
+		@Autowired
+		private JdbcTemplate jdbc;
+
+		@Autowired
+		private MockMvc mockMvc;
+
+		private final String tokenIn = "HIST-" + UUID.randomUUID();
+
+		@AfterEach
+		void cleanUp() {
+			jdbc.update("DELETE FROM orders WHERE token_in = ?", tokenIn);
+			jdbc.update("DELETE FROM orders_archive WHERE token_in = ?", tokenIn);
+		}
+
+		@Test
+		void pagesAcrossLiveAndArchivedOrdersWithoutGapsOrRepeats() {
+			LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS).minusMinutes(10);
+			List<String> expected = new ArrayList<>();
+			for (int i = 6; i >= 1; i--) {
+				String id = tokenIn + "-" + i;
+				insert(i % 2 == 0 ? "orders" : "orders_archive", id, base.plusSeconds(i));
+				expected.add(id);
+			}
+			// Two orders sharing a timestamp, one on each side, are told apart by id
+			insert("orders", tokenIn + "-0b", base);
+			insert("orders_archive", tokenIn + "-0a", base);
+			expected.add(tokenIn + "-0b");
+			expected.add(tokenIn + "-0a");
+
+			OrderHistoryFilter byPair = OrderHistoryFilter.builder().tokenIn(tokenIn).tokenOut("USDC").build();
+			List<String> seen = new ArrayList<>();
+			String cursor = null;
+			do {
+				OrderHistoryPage page = liveHistory.getHistory(byPair, cursor, 3);
+				page.getOrders().forEach(order -> seen.add(order.getOrderId()));
+				cursor = page.getNextCursor();
+			} while (cursor != null);
+
+			assertEquals(expected, seen);
+		}
+
+		@Test
+		void rejectsUnknownStatusAndDexWithBadRequest() throws Exception {
+			mockMvc.perform(get("/api/orders/history").param("status", "SETTLED"))
+					.andExpect(status().isBadRequest());
+			mockMvc.perform(get("/api/orders/history").param("dex", "UNISWAP"))
+					.andExpect(status().isBadRequest());
+			mockMvc.perform(get("/api/orders/history").param("cursor", "not base64!"))
+					.andExpect(status().isBadRequest());
+		}
+
+		private void insert(String table, String id, LocalDateTime createdAt) {
+			jdbc.update("INSERT INTO " + table + " (id, token_in, token_out, amount, order_type, status, created_at)"
+							+ " VALUES (?, ?, 'USDC', 1, 'MARKET', 'CONFIRMED', ?)",
+					id, tokenIn, Timestamp.valueOf(createdAt));
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.ExecutionResult;
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import com.dex.orderengine.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives one order through an {@link OrderPipeline} with a real {@link OrderLifecycle},
+ * {@link OrderQueueService} and {@link ConfirmationTracker}; venues, the chain and persistence
+ * are stubbed. Each engine's test only supplies the pipeline.
+ */
+abstract class OrderPipelineTestSupport {
+
+	private static final long TIMEOUT_MS = 5_000;
+
+	protected final MockDexRoutingService dexRoutingService = mock(MockDexRoutingService.class);
+	protected final SplitOrderRouter splitRouter = mock(SplitOrderRouter.class);
+	protected final OrderQueueService queueService =
+			new OrderQueueService(mock(OrderRepository.class), mock(OrderTraceLog.class), "blocking", 10, 100);
+	protected final OrderLifecycle lifecycle = new OrderLifecycle(queueService,
+			mock(WebSocketNotificationService.class), new OrderCacheService(), mock(OrderEventLog.class),
+			mock(OrderStatsService.class), mock(OrderSnapshotWriter.class), mock(OrderTraceLog.class),
+			new OrderStateMachine(), mock(OrderCaptureService.class), new OrderReplayWatcher());
+	protected final MockChainStatusService chainStatusService = mock(MockChainStatusService.class);
+	protected final ConfirmationTracker confirmationTracker =
+			new ConfirmationTracker(chainStatusService, lifecycle, mock(VenueHealthTracker.class));
+
+	private final Map<String, Boolean> landed = new HashMap<>();
+	private int submissions;
+	private OrderPipeline pipeline;
+
+	protected abstract OrderPipeline createPipeline();
+
+	protected void shutdown(OrderPipeline pipeline) {
+	}
+
+	@BeforeEach
+	void setUpPipeline() {
+		when(splitRouter.route(any())).thenAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			DexQuote leg = DexQuote.builder()
+					.dexType(DexType.RAYDIUM)
+					.amountIn(order.remainingAmount())
+					.price(BigDecimal.valueOf(97))
+					.outputAmount(order.remainingAmount().multiply(BigDecimal.valueOf(97)))
+					.build();
+			return CompletableFuture.completedFuture(new RoutePlan(List.of(leg), List.of(leg)));
+		});
+		when(dexRoutingService.submitSwaps(any(), anyList())).thenAnswer(invocation -> {
+			String txHash = "tx-" + ++submissions;
+			landed.put(txHash, true);
+			return CompletableFuture.completedFuture(List.of(txHash));
+		});
+		when(chainStatusService.getStatuses(any())).thenAnswer(invocation -> {
+			Collection<String> txHashes = invocation.getArgument(0);
+			Map<String, ExecutionResult> statuses = new HashMap<>();
+			for (String txHash : txHashes) {
+				statuses.put(txHash, ExecutionResult.builder()
+						.success(landed.get(txHash))
+						.txHash(txHash)
+						.dex(DexType.RAYDIUM)
+						.amountIn(BigDecimal.TEN)
+						.outputAmount(BigDecimal.valueOf(970))
+						.executedPrice(BigDecimal.valueOf(97))
+						.errorMessage(landed.get(txHash) ? null : "Transaction failed")
+						.build());
+			}
+			return statuses;
+		});
+		pipeline = createPipeline();
+	}
+
+	@AfterEach
+	void tearDownPipeline() {
+		shutdown(pipeline);
+	}
+
+	@Test
+	void orderIsConfirmedAndReleasesItsSlot() {
+		Order order = dispatch(order("a", OrderStatus.PENDING));
+
+		awaitTracked(order);
+		confirmationTracker.pollConfirmations();
+
+		assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+		assertEquals(1, order.getFills().size());
+		assertEquals(0, queueService.getProcessingCount());
+		assertNull(queueService.getActiveOrder("a"));
+	}
+
+	@Test
+	void failedSubmissionIsRetriedThenConfirmed() {
+		when(dexRoutingService.submitSwaps(any(), anyList()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("RPC unavailable")))
+				.thenAnswer(invocation -> CompletableFuture.completedFuture(List.of("tx-retry")));
+		landed.put("tx-retry", true);
+		Order order = dispatch(order("a", OrderStatus.PENDING));
+
+		awaitRequeued(order);
+		assertEquals(1, order.getRetryCount());
+
+		dispatch(order);
+		awaitTracked(order);
+		confirmationTracker.pollConfirmations();
+
+		assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+		assertEquals(0, queueService.getProcessingCount());
+	}
+
+	@Test
+	void failedConfirmationIsRetried() {
+		when(dexRoutingService.submitSwaps(any(), anyList()))
+				.thenAnswer(invocation -> CompletableFuture.completedFuture(List.of("tx-dropped")));
+		landed.put("tx-dropped", false);
+		Order order = dispatch(order("a", OrderStatus.PENDING));
+
+		awaitTracked(order);
+		confirmationTracker.pollConfirmations();
+
+		awaitRequeued(order);
+		assertEquals(1, order.getRetryCount());
+		assertEquals(0, order.getFills().size());
+	}
+
+	@Test
+	void illegalTransitionIsRetriedInsteadOfLosingTheOrder() {
+		// Dispatching an order that is already SUBMITTED makes startRouting throw
+		Order order = dispatch(order("a", OrderStatus.SUBMITTED));
+
+		awaitRequeued(order);
+		assertEquals(1, order.getRetryCount());
+	}
+
+	private Order dispatch(Order order) {
+		return dispatch(pipeline, order);
+	}
+
+	protected Order dispatch(OrderPipeline pipeline, Order order) {
+		if (queueService.getActiveOrder(order.getId()) == null) {
+			queueService.enqueue(order);
+		}
+		assertEquals(order.getId(), queueService.pollNext());
+		pipeline.execute(order);
+		return order;
+	}
+
+	// The order is marked SUBMITTED just before its transactions are handed to the tracker
+	private void awaitTracked(Order order) {
+		await(() -> confirmationTracker.getPendingCount() > 0, "order to be tracked");
+		assertEquals(OrderStatus.SUBMITTED, order.getStatus());
+	}
+
+	// A retry puts the order back in the queue as PENDING and gives up its slot
+	private void awaitRequeued(Order order) {
+		await(() -> queueService.getQueueSize() == 1, "order to be requeued");
+		assertEquals(OrderStatus.PENDING, order.getStatus());
+		assertEquals(0, queueService.getProcessingCount());
+	}
+
+	protected static void await(BooleanSupplier condition, String description) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() - deadline > 0) {
+				fail("Timed out waiting for " + description);
+			}
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail("Interrupted waiting for " + description);
+			}
+		}
+	}
+
+	protected static Order order(String id, OrderStatus status) {
+		return Order.builder()
+				.id(id)
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(BigDecimal.TEN)
+				.orderType(OrderType.MARKET)
+				.status(status)
+				.retryCount(0)
+				.eventVersion(0)
+				.fills(new ArrayList<>())
+				.build();
+	}
+}
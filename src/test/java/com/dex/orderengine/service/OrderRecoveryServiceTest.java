@@ -0,0 +1,142 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderFill;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.model.OrderType;
+import com.dex.orderengine.model.RecoverySource;
+import com.dex.orderengine.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderRecoveryServiceTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final OrderRepository orderRepository = mock(OrderRepository.class);
+	private final OrderEventLog eventLog = mock(OrderEventLog.class);
+	private final OrderLifecycle lifecycle = mock(OrderLifecycle.class);
+	private final OrderPipeline pipeline = mock(OrderPipeline.class);
+	private final OrderQueueService queueService =
+			new OrderQueueService(orderRepository, mock(OrderTraceLog.class), "blocking", 10, 100);
+
+	private EngineCheckpointStore checkpointStore;
+	private OrderRecoveryService recoveryService;
+
+	@BeforeEach
+	void setUp() {
+		checkpointStore = new EngineCheckpointStore(tempDir.resolve("engine-checkpoint.bin").toString());
+		recoveryService = new OrderRecoveryService(orderRepository, queueService, new OrderCacheService(), eventLog,
+				checkpointStore, new OrderStateMachine(), lifecycle, pipeline);
+		when(eventLog.replay(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void requeuesCheckpointedOrdersThatWereNotSubmitted() throws Exception {
+		Order routing = order("routing", OrderStatus.ROUTING);
+		Order pending = order("pending", OrderStatus.PENDING);
+		checkpointStore.write(List.of("routing", "pending", "archived"));
+		when(orderRepository.findAllById(any())).thenReturn(List.of(routing, pending));
+
+		recoveryService.startRecovery(mock(ApplicationReadyEvent.class));
+
+		assertEquals(OrderStatus.PENDING, routing.getStatus());
+		assertEquals("routing", queueService.pollNext());
+		assertEquals("pending", queueService.pollNext());
+		assertNull(queueService.pollNext());
+		assertEquals(RecoverySource.CHECKPOINT, recoveryService.getStats().getSource());
+		assertEquals(2, recoveryService.getStats().getRecoveredOrders());
+		assertTrue(recoveryService.stop());
+		// Taking the checkpoint removed it
+		assertTrue(checkpointStore.take().isEmpty());
+	}
+
+	@Test
+	void submittedOrderAwaitsItsUnfilledTransactionsInsteadOfBeingRouted() throws Exception {
+		Order submitted = order("submitted", OrderStatus.SUBMITTED);
+		submitted.getFills().add(fill("tx-1"));
+		checkpointStore.write(List.of("submitted"));
+		when(orderRepository.findAllById(any())).thenReturn(List.of(submitted));
+		when(eventLog.getSubmittedTxHashes("submitted")).thenReturn(List.of("tx-1", "tx-2"));
+
+		recoveryService.startRecovery(mock(ApplicationReadyEvent.class));
+
+		verify(pipeline).awaitConfirmation(submitted, List.of("tx-2"));
+		verify(pipeline, never()).execute(any());
+		assertEquals(OrderStatus.SUBMITTED, submitted.getStatus());
+		assertEquals(0, queueService.getQueueSize());
+		// It holds a processing slot until the tracker completes it
+		assertSame(submitted, queueService.getActiveOrder("submitted"));
+		assertEquals(1, queueService.getProcessingCount());
+	}
+
+	@Test
+	void submittedOrderWithEveryLegFilledIsConfirmed() throws Exception {
+		Order submitted = order("submitted", OrderStatus.SUBMITTED);
+		submitted.getFills().add(fill("tx-1"));
+		checkpointStore.write(List.of("submitted"));
+		when(orderRepository.findAllById(any())).thenReturn(List.of(submitted));
+		when(eventLog.getSubmittedTxHashes("submitted")).thenReturn(List.of("tx-1"));
+
+		recoveryService.startRecovery(mock(ApplicationReadyEvent.class));
+
+		verify(lifecycle).confirmed(submitted);
+		verify(pipeline, never()).awaitConfirmation(any(), any());
+	}
+
+	@Test
+	void orderAlreadyActiveInThisProcessIsNotQueuedAgain() throws Exception {
+		Order pending = order("pending", OrderStatus.PENDING);
+		queueService.enqueue(pending);
+		checkpointStore.write(List.of("pending"));
+		when(orderRepository.findAllById(any())).thenReturn(List.of(order("pending", OrderStatus.PENDING)));
+
+		recoveryService.startRecovery(mock(ApplicationReadyEvent.class));
+
+		assertEquals(1, queueService.getQueueSize());
+		assertEquals(0, recoveryService.getStats().getRecoveredOrders());
+	}
+
+	private static Order order(String id, OrderStatus status) {
+		return Order.builder()
+				.id(id)
+				.tokenIn("SOL")
+				.tokenOut("USDC")
+				.amount(BigDecimal.TEN)
+				.orderType(OrderType.MARKET)
+				.status(status)
+				.retryCount(0)
+				.eventVersion(4)
+				.fills(new ArrayList<>())
+				.build();
+	}
+
+	private static OrderFill fill(String txHash) {
+		return OrderFill.builder()
+				.dex(DexType.RAYDIUM)
+				.amountIn(BigDecimal.TEN)
+				.outputAmount(BigDecimal.valueOf(970))
+				.executedPrice(BigDecimal.valueOf(97))
+				.txHash(txHash)
+				.build();
+	}
+}
@@ -0,0 +1,134 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.StateLatencyStats;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import com.dex.orderengine.service.OrderStateMachine.StateHistogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStateMachineTest {
+
+	private final OrderStateMachine stateMachine = new OrderStateMachine();
+
+	@Test
+	void transitionMovesTheOrderAndTimesItsPreviousStatus() {
+		Order order = Order.builder().id("a").status(OrderStatus.PENDING).build();
+		stateMachine.enter(order);
+
+		stateMachine.transition(order, OrderStatus.ROUTING);
+
+		assertEquals(OrderStatus.ROUTING, order.getStatus());
+		assertEquals(1, stats(OrderStatus.PENDING).getCount());
+		assertEquals(0, stats(OrderStatus.ROUTING).getCount());
+	}
+
+	@Test
+	void orderThatNeverEnteredIsMovedButNotTimed() {
+		Order order = Order.builder().id("a").status(OrderStatus.PENDING).build();
+
+		stateMachine.transition(order, OrderStatus.ROUTING);
+
+		assertEquals(OrderStatus.ROUTING, order.getStatus());
+		assertEquals(0, stats(OrderStatus.PENDING).getCount());
+	}
+
+	@Test
+	void illegalTransitionIsRejectedAndLeavesTheOrderAlone() {
+		Order order = Order.builder().id("a").status(OrderStatus.CONFIRMED).build();
+
+		assertThrows(IllegalStateException.class, () -> stateMachine.transition(order, OrderStatus.PENDING));
+		assertEquals(OrderStatus.CONFIRMED, order.getStatus());
+	}
+
+	@Test
+	void latencyStatsCoverOnlyNonTerminalStatuses() {
+		List<StateLatencyStats> stats = stateMachine.getLatencyStats();
+
+		assertEquals(List.of(OrderStatus.PENDING, OrderStatus.ROUTING, OrderStatus.BUILDING, OrderStatus.SUBMITTED),
+				stats.stream().map(StateLatencyStats::getState).toList());
+	}
+
+	@Test
+	void smallValuesHaveTheirOwnBuckets() {
+		for (int micros = 0; micros < 4; micros++) {
+			assertEquals(micros, StateHistogram.bucket(micros));
+			assertEquals(micros, StateHistogram.upperBound(micros));
+		}
+	}
+
+	@Test
+	void everyValueFallsInABucketAtMostAQuarterWide() {
+		for (long micros = 0; micros < 1 << 20; micros++) {
+			int bucket = StateHistogram.bucket(micros);
+			long lowerBound = bucket == 0 ? 0 : StateHistogram.upperBound(bucket - 1) + 1;
+			long upperBound = StateHistogram.upperBound(bucket);
+
+			assertTrue(lowerBound <= micros && micros <= upperBound, "bucket of " + micros);
+			assertTrue(upperBound - micros <= micros / 4, "width of bucket of " + micros);
+		}
+	}
+
+	@Test
+	void bucketsAreContiguousUpToTheLargestValue() {
+		assertEquals(StateHistogram.BUCKETS - 1, StateHistogram.bucket(Long.MAX_VALUE));
+		assertEquals(Long.MAX_VALUE, StateHistogram.upperBound(StateHistogram.BUCKETS - 1));
+		for (int bucket = 1; bucket < StateHistogram.BUCKETS; bucket++) {
+			assertEquals(bucket, StateHistogram.bucket(StateHistogram.upperBound(bucket - 1) + 1));
+		}
+	}
+
+	@Test
+	void percentilesAreWithinTheBucketErrorAndCappedAtTheMax() {
+		StateHistogram histogram = new StateHistogram();
+		for (int millis = 1; millis <= 100; millis++) {
+			histogram.record(millis * 1_000_000L);
+		}
+
+		StateLatencyStats stats = histogram.snapshot(OrderStatus.ROUTING);
+
+		assertEquals(100, stats.getCount());
+		assertEquals(50.5, stats.getMeanMs(), 1e-9);
+		assertEquals(100.0, stats.getMaxMs(), 1e-9);
+		assertBetween(50, 50 * 1.25, stats.getP50Ms());
+		assertBetween(90, 90 * 1.25, stats.getP90Ms());
+		assertBetween(99, 100, stats.getP99Ms());
+	}
+
+	@Test
+	void singleSampleReportsItsOwnValue() {
+		StateHistogram histogram = new StateHistogram();
+		histogram.record(1_000_000);
+
+		StateLatencyStats stats = histogram.snapshot(OrderStatus.ROUTING);
+
+		assertEquals(1.0, stats.getP50Ms(), 1e-9);
+		assertEquals(1.0, stats.getP99Ms(), 1e-9);
+	}
+
+	@Test
+	void emptyHistogramReportsZeros() {
+		StateLatencyStats stats = new StateHistogram().snapshot(OrderStatus.ROUTING);
+
+		assertEquals(0, stats.getCount());
+		assertEquals(0.0, stats.getMeanMs());
+		assertEquals(0.0, stats.getP99Ms());
+		assertEquals(0.0, stats.getMaxMs());
+	}
+
+	private StateLatencyStats stats(OrderStatus status) {
+		return stateMachine.getLatencyStats().stream()
+				.filter(stats -> stats.getState() == status)
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private static void assertBetween(double low, double high, double actual) {
+		assertTrue(actual >= low && actual <= high, actual + " not in [" + low + ", " + high + "]");
+	}
+}
@@ -0,0 +1,196 @@
+package com.dex.orderengine.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.dex.orderengine.dto.OrderRequest;
+import com.dex.orderengine.dto.WebSocketMessage;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bytes allocated per order by the hot-path logging of one small, single-venue order: the
+ * SLF4J statements it used to make at the old DEBUG level, against the {@link OrderTraceLog}
+ * calls that replaced them. Only the logging calls are measured, not the order processing.
+ * Run it with {@code mvn test -Dtest=OrderTraceLogBenchmark}.
+ */
+class OrderTraceLogBenchmark {
+
+	private static final int WARMUP_ORDERS = 50_000;
+	private static final int MEASURED_ORDERS = 50_000;
+	private static final int BATCH = 200;
+	private static final int DISTINCT_ORDERS = 4096;
+	private static final DexType[] VENUES = DexType.values();
+	private static final OrderStatus[] NOTIFIED = {OrderStatus.PENDING, OrderStatus.ROUTING,
+			OrderStatus.BUILDING, OrderStatus.SUBMITTED, OrderStatus.CONFIRMED};
+	private static final OrderEventType[] TRANSITIONS = {OrderEventType.CREATED, OrderEventType.ROUTING_STARTED,
+			OrderEventType.ROUTE_SELECTED, OrderEventType.BUILDING_STARTED, OrderEventType.SUBMITTED,
+			OrderEventType.FILLED, OrderEventType.CONFIRMED};
+
+	private final com.sun.management.ThreadMXBean threads =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final OrderRequest request = OrderRequest.builder()
+			.tokenIn("SOL").tokenOut("USDC").amount(new BigDecimal("1.5")).slippage(new BigDecimal("0.01")).build();
+	private final Order order = newOrder();
+	// Built up front so the measured loop sees distinct ids, and per-order sampling applies
+	private final Order[] orders = new Order[DISTINCT_ORDERS];
+	private final WebSocketMessage message = WebSocketMessage.builder()
+			.orderId(order.getId()).status(OrderStatus.ROUTING).message("Comparing prices from DEXs")
+			.timestamp(LocalDateTime.now()).build();
+	private final BigDecimal price = new BigDecimal("98.123456");
+	private final BigDecimal output = new BigDecimal("147.185184");
+	private final BigDecimal fee = new BigDecimal("0.0025");
+	private final String txHash = "5" + UUID.randomUUID().toString().replace("-", "") + "abcdef";
+
+	OrderTraceLogBenchmark() {
+		for (int i = 0; i < orders.length; i++) {
+			orders[i] = newOrder();
+		}
+	}
+
+	@Test
+	void slf4jAtDebug() {
+		LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n");
+		encoder.start();
+		OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setContext(context);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+
+		Logger log = context.getLogger("com.dex.orderengine.bench");
+		log.setAdditive(false);
+		log.setLevel(Level.DEBUG);
+		log.addAppender(appender);
+		try {
+			for (int i = 0; i < WARMUP_ORDERS; i++) {
+				logOrderWithSlf4j(log);
+			}
+			long before = allocatedBytes();
+			for (int i = 0; i < MEASURED_ORDERS; i++) {
+				logOrderWithSlf4j(log);
+			}
+			report("slf4j debug", (allocatedBytes() - before) / MEASURED_ORDERS, 0);
+		} finally {
+			log.detachAndStopAllAppenders();
+		}
+	}
+
+	@Test
+	void orderTraceLog() throws Exception {
+		for (int sampleRate : new int[]{1, 16}) {
+			Path path = Files.createTempDirectory("order-trace").resolve("order-trace.log");
+			OrderTraceLog trace = new OrderTraceLog(path.toString(), sampleRate, 8192);
+			try {
+				runTraced(trace, WARMUP_ORDERS);
+				Thread writer = findThread("OrderTraceWriter");
+				long writerBefore = threads.getThreadAllocatedBytes(writer.getId());
+				long before = allocatedBytes();
+				runTraced(trace, MEASURED_ORDERS);
+				long callerBytes = allocatedBytes() - before;
+				long writerBytes = threads.getThreadAllocatedBytes(writer.getId()) - writerBefore;
+
+				report("trace sample-rate=" + sampleRate, callerBytes / MEASURED_ORDERS,
+						writerBytes / MEASURED_ORDERS);
+				System.out.printf("  dropped %d records%n", trace.getDroppedCount());
+			} finally {
+				trace.shutdown();
+			}
+		}
+	}
+
+	// The statements one order made before the trace: controller, submission, queue, five status
+	// notifications (each a DEBUG send and an INFO update), two quotes, selection, swap, landing
+	private void logOrderWithSlf4j(Logger log) {
+		log.info("Received order execution request: {}", request);
+		log.info("Submitting new market order: {} {} -> {}", request.getAmount(), request.getTokenIn(),
+				request.getTokenOut());
+		log.info("Order created with ID: {}", order.getId());
+		log.info("Order {} added to queue. Queue size: {}, Processing: {}", order.getId(), 12, 10);
+		log.debug("Dequeued order {}. Queue size: {}, Processing: {}", order.getId(), 11, 10);
+		for (int i = 0; i < NOTIFIED.length; i++) {
+			log.debug("Sending WebSocket message to {}: {}", "/topic/orders/" + order.getId(), message);
+			log.info("Order {} status update: {} - {}", order.getId(), NOTIFIED[i], message.getMessage());
+		}
+		for (DexType dex : VENUES) {
+			log.info("{} quote for {} {} -> {}: price={}, output={}, fee={}",
+					dex, order.getAmount(), order.getTokenIn(), order.getTokenOut(), price, output, fee);
+		}
+		log.info("Selected {} - output: {}, score: {} out of {} quotes", DexType.RAYDIUM, output, output, 2);
+		log.info("Submitting swap of {} on {} for order {}", order.getAmount(), DexType.RAYDIUM, order.getId());
+		log.info("Swap submitted on {} - txHash: {}", DexType.RAYDIUM, txHash);
+		log.info("Transaction confirmed on {} - txHash: {}, price: {}", DexType.RAYDIUM, txHash, price);
+		log.info("Order {} executed successfully in {} fill(s). TxHash: {}", order.getId(), 1, txHash);
+		log.info("Order {} completed. Queue size: {}, Processing: {}", order.getId(), 11, 9);
+	}
+
+	private void runTraced(OrderTraceLog trace, int count) throws InterruptedException {
+		for (int i = 0; i < count; i++) {
+			Order order = orders[i & (DISTINCT_ORDERS - 1)];
+			String orderId = order.getId();
+			trace.queue(orderId, "ENQUEUED", 12, 10);
+			trace.queue(orderId, "DEQUEUED", 11, 10);
+			for (OrderStatus status : NOTIFIED) {
+				trace.notified(orderId, status, message.getMessage());
+			}
+			for (DexType dex : VENUES) {
+				trace.quote(dex, order.getTokenIn(), order.getTokenOut(), order.getAmount(), price, output);
+			}
+			trace.route(orderId, DexType.RAYDIUM, 1, 0);
+			trace.swapSubmitted(orderId, DexType.RAYDIUM, txHash, order.getAmount());
+			trace.txLanded(DexType.RAYDIUM, txHash, price);
+			for (OrderEventType type : TRANSITIONS) {
+				trace.transition(order, type);
+			}
+			trace.queue(orderId, "COMPLETED", 11, 9);
+
+			// Let the writer keep up so records are formatted rather than dropped
+			if (i % BATCH == BATCH - 1) {
+				while (trace.getPendingCount() > 0) {
+					Thread.sleep(1);
+				}
+			}
+		}
+	}
+
+	private static Order newOrder() {
+		return Order.builder()
+				.id(UUID.randomUUID().toString()).tokenIn("SOL").tokenOut("USDC").amount(new BigDecimal("1.5"))
+				.status(OrderStatus.PENDING).selectedDex(DexType.RAYDIUM).eventVersion(1).build();
+	}
+
+	private long allocatedBytes() {
+		return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	private static Thread findThread(String name) {
+		return Thread.getAllStackTraces().keySet().stream()
+				.filter(thread -> thread.getName().equals(name))
+				.findFirst()
+				.orElseThrow();
+	}
+
+	private static void report(String variant, long callerBytesPerOrder, long writerBytesPerOrder) {
+		System.out.printf("%-22s %6d B/order on the caller, %6d B/order on the writer%n",
+				variant, callerBytesPerOrder, writerBytesPerOrder);
+	}
+}
@@ -0,0 +1,97 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderEventType;
+import com.dex.orderengine.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderTraceLogTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void writesOneLogfmtLinePerEvent() throws Exception {
+		Path path = dir.resolve("order-trace.log");
+		OrderTraceLog trace = new OrderTraceLog(path.toString(), 1, 64);
+		Order order = Order.builder().id("order-1").status(OrderStatus.ROUTING)
+				.selectedDex(DexType.RAYDIUM).eventVersion(2).build();
+
+		trace.transition(order, OrderEventType.ROUTING_STARTED);
+		trace.quote(DexType.METEORA, "SOL", "USDC", new BigDecimal("1.5"), new BigDecimal("98"),
+				new BigDecimal("147"));
+		trace.route("order-1", null, 2, 0.5);
+		trace.swapSubmitted("order-1", DexType.RAYDIUM, "tx-1", new BigDecimal("1.5"));
+		trace.txLanded(DexType.RAYDIUM, "tx-1", new BigDecimal("98"));
+		trace.queue("order-1", "ENQUEUED", 3, 1);
+		trace.notified("order-1", OrderStatus.FAILED, "Said \"no\"\nthen stopped");
+		trace.shutdown();
+
+		List<String> lines = Files.readAllLines(path);
+		assertEquals(7, lines.size());
+		assertTrue(lines.get(0).matches("ts=\\d+ event=TRANSITION order=order-1 dex=RAYDIUM "
+				+ "type=ROUTING_STARTED status=ROUTING version=2"));
+		assertTrue(lines.get(1).endsWith("event=QUOTE dex=METEORA pair=SOL/USDC amount=1.5 price=98.0 output=147.0"));
+		assertTrue(lines.get(2).endsWith("event=ROUTE order=order-1 legs=2 gain=0.5"));
+		assertTrue(lines.get(3).endsWith("event=SWAP_SUBMITTED order=order-1 dex=RAYDIUM tx=tx-1 amount=1.5"));
+		assertTrue(lines.get(4).endsWith("event=TX_LANDED dex=RAYDIUM tx=tx-1 price=98.0"));
+		assertTrue(lines.get(5).endsWith("event=QUEUE order=order-1 op=ENQUEUED queued=3 processing=1"));
+		assertTrue(lines.get(6).endsWith("event=NOTIFY order=order-1 status=FAILED message=\"Said 'no''then stopped\""));
+	}
+
+	@Test
+	void fullRingDropsAndCountsRecords() throws Exception {
+		Path path = dir.resolve("order-trace.log");
+		OrderTraceLog trace = new OrderTraceLog(path.toString(), 1, 2);
+		int records = 100_000;
+
+		for (int i = 0; i < records; i++) {
+			trace.route("order-" + i, DexType.RAYDIUM, 1, 0);
+		}
+		trace.shutdown();
+
+		long dropped = trace.getDroppedCount();
+		assertTrue(dropped > 0);
+		assertEquals(records, lineCount(path) + dropped);
+	}
+
+	@Test
+	void rotatesOnceTheFileIsFull() throws Exception {
+		Path path = dir.resolve("order-trace.log");
+		OrderTraceLog trace = new OrderTraceLog(path.toString(), 1, 64, 1024);
+		int records = 200;
+
+		for (int i = 0; i < records; i++) {
+			trace.route("order-" + i, DexType.RAYDIUM, 1, 0);
+			while (trace.getPendingCount() > 0) {
+				Thread.sleep(1);
+			}
+		}
+		trace.shutdown();
+
+		Path rotated = dir.resolve("order-trace.log.1");
+		assertTrue(Files.exists(rotated));
+		assertTrue(Files.size(rotated) > 1024);
+		assertFalse(Files.readString(path).contains("order=order-0 "));
+		assertTrue(Files.readString(path).contains("order=order-" + (records - 1) + " "));
+		assertEquals(0, trace.getDroppedCount());
+	}
+
+	private static long lineCount(Path path) throws IOException {
+		try (var lines = Files.lines(path)) {
+			return lines.count();
+		}
+	}
+}
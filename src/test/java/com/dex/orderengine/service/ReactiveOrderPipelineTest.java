@@ -0,0 +1,14 @@
+package com.dex.orderengine.service;
+
+class ReactiveOrderPipelineTest extends OrderPipelineTestSupport {
+
+	@Override
+	protected OrderPipeline createPipeline() {
+		return new ReactiveOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker);
+	}
+
+	@Override
+	protected void shutdown(OrderPipeline pipeline) {
+		((ReactiveOrderPipeline) pipeline).shutdown();
+	}
+}
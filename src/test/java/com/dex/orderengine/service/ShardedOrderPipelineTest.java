@@ -0,0 +1,146 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.dto.RoutePlan;
+import com.dex.orderengine.dto.ShardStats;
+import com.dex.orderengine.model.DexType;
+import com.dex.orderengine.model.Order;
+import com.dex.orderengine.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+class ShardedOrderPipelineTest extends OrderPipelineTestSupport {
+
+	@Override
+	protected OrderPipeline createPipeline() {
+		return new ShardedOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker, 2, 256);
+	}
+
+	@Override
+	protected void shutdown(OrderPipeline pipeline) {
+		((ShardedOrderPipeline) pipeline).shutdown();
+	}
+
+	@Test
+	void ordersOfAPairRouteConcurrentlyButSubmitInDispatchOrder() {
+		CompletableFuture<RoutePlan> slowRoute = new CompletableFuture<>();
+		doReturn(slowRoute).when(splitRouter).route(argThat(order -> order.getId().equals("a")));
+		List<String> submitted = new CopyOnWriteArrayList<>();
+		when(dexRoutingService.submitSwaps(any(), anyList())).thenAnswer(invocation -> {
+			Order order = invocation.getArgument(0);
+			submitted.add(order.getId());
+			return CompletableFuture.completedFuture(List.of("tx-" + order.getId()));
+		});
+		ShardedOrderPipeline pipeline =
+				new ShardedOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker, 2, 1);
+		try {
+			Order first = dispatch(pipeline, order("a", OrderStatus.PENDING));
+			Order second = dispatch(pipeline, order("b", OrderStatus.PENDING));
+
+			// b is built while a is still routing; it waits for a and holds back admission
+			await(() -> !pipeline.canAccept(), "b to wait behind a");
+			assertEquals(OrderStatus.ROUTING, first.getStatus());
+			assertEquals(OrderStatus.BUILDING, second.getStatus());
+			assertTrue(submitted.isEmpty());
+
+			slowRoute.complete(plan(first));
+			await(() -> second.getStatus() == OrderStatus.SUBMITTED, "both orders to submit");
+
+			assertEquals(List.of("a", "b"), submitted);
+			assertEquals(OrderStatus.SUBMITTED, first.getStatus());
+			assertTrue(pipeline.canAccept());
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	@Test
+	void orderThatFailsBeforeBuildingDoesNotHoldUpItsPair() {
+		doReturn(CompletableFuture.failedFuture(new IllegalStateException("No quotes")))
+				.when(splitRouter).route(argThat(order -> order.getId().equals("a")));
+		ShardedOrderPipeline pipeline =
+				new ShardedOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker, 2, 1);
+		try {
+			Order first = dispatch(pipeline, order("a", OrderStatus.PENDING));
+			Order second = dispatch(pipeline, order("b", OrderStatus.PENDING));
+
+			await(() -> second.getStatus() == OrderStatus.SUBMITTED, "b to submit");
+
+			assertEquals(OrderStatus.PENDING, first.getStatus());
+			assertEquals(1, first.getRetryCount());
+			assertTrue(pipeline.canAccept());
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	@Test
+	void routerThatThrowsAbandonsTheOrderWithoutHoldingUpItsPair() {
+		doThrow(new IllegalStateException("Router unavailable"))
+				.when(splitRouter).route(argThat(order -> order.getId().equals("a")));
+		ShardedOrderPipeline pipeline =
+				new ShardedOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker, 2, 1);
+		try {
+			Order first = dispatch(pipeline, order("a", OrderStatus.PENDING));
+			Order second = dispatch(pipeline, order("b", OrderStatus.PENDING));
+
+			await(() -> second.getStatus() == OrderStatus.SUBMITTED, "b to submit");
+
+			assertEquals(OrderStatus.PENDING, first.getStatus());
+			assertEquals(1, first.getRetryCount());
+			assertTrue(pipeline.canAccept());
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	@Test
+	void idlePairsAreDroppedAndComeBackOnTheirNextOrder() {
+		ShardedOrderPipeline pipeline =
+				new ShardedOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker, 2, 256);
+		try {
+			Order first = dispatch(pipeline, order("a", OrderStatus.PENDING));
+			await(() -> first.getStatus() == OrderStatus.SUBMITTED, "a to submit");
+
+			// The first window saw the order, the second sees the pair idle
+			pipeline.rebalance();
+			assertEquals(1, trackedPairs(pipeline));
+			pipeline.rebalance();
+			assertEquals(0, trackedPairs(pipeline));
+
+			Order second = dispatch(pipeline, order("b", OrderStatus.PENDING));
+			await(() -> second.getStatus() == OrderStatus.SUBMITTED, "b to submit");
+			pipeline.rebalance();
+			assertEquals(1, trackedPairs(pipeline));
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+
+	private static int trackedPairs(ShardedOrderPipeline pipeline) {
+		return pipeline.getShardStats().stream().mapToInt(ShardStats::getPairs).sum();
+	}
+
+	private static RoutePlan plan(Order order) {
+		DexQuote leg = DexQuote.builder()
+				.dexType(DexType.RAYDIUM)
+				.amountIn(order.remainingAmount())
+				.price(BigDecimal.valueOf(97))
+				.outputAmount(order.remainingAmount().multiply(BigDecimal.valueOf(97)))
+				.build();
+		return new RoutePlan(List.of(leg), List.of(leg));
+	}
+}
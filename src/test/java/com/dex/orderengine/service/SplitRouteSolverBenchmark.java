@@ -0,0 +1,58 @@
+package com.dex.orderengine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * Reports the cost per order of {@link SplitRouteSolver}; correctness is covered by
+ * {@link SplitRouteSolverTest}.
+ * Not picked up by the default surefire includes; run it with
+ * {@code mvn test -Dtest=SplitRouteSolverBenchmark}.
+ */
+class SplitRouteSolverBenchmark {
+
+	private static final int INCREMENTS = 16;
+	private static final int WARMUP_ITERATIONS = 200_000;
+	private static final int MEASURED_ITERATIONS = 1_000_000;
+
+	private final Random random = new Random(42);
+
+	@Test
+	void benchmarkAllocate() {
+		for (int venues : new int[]{2, 4, 8}) {
+			double[][][] cases = new double[64][][];
+			for (int i = 0; i < cases.length; i++) {
+				cases[i] = randomPools(venues, 800);
+			}
+
+			long sink = 0;
+			for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+				sink += SplitRouteSolver.allocate(cases[i & 63], INCREMENTS)[0];
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+				sink += SplitRouteSolver.allocate(cases[i & 63], INCREMENTS)[0];
+			}
+			double nanosPerOrder = (double) (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+			System.out.printf("SplitRouteSolver.allocate venues=%d increments=%d: %.1f ns/order (sink %d)%n",
+					venues, INCREMENTS, nanosPerOrder, sink);
+		}
+	}
+
+	// Constant-product output curves like the mock pools: output(x) = p * R * x / (R + x)
+	private double[][] randomPools(int venues, double amount) {
+		double[][] outputs = new double[venues][INCREMENTS + 1];
+		for (int v = 0; v < venues; v++) {
+			double price = 97 + random.nextDouble() * 5;
+			double reserve = 1_000 + random.nextDouble() * 9_000;
+			for (int k = 1; k <= INCREMENTS; k++) {
+				double size = amount * k / INCREMENTS;
+				outputs[v][k] = price * reserve * size / (reserve + size);
+			}
+		}
+		return outputs;
+	}
+}
@@ -0,0 +1,69 @@
+package com.dex.orderengine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SplitRouteSolverTest {
+
+	private static final int INCREMENTS = 16;
+
+	private final Random random = new Random(42);
+
+	@Test
+	void matchesBruteForceForTwoVenues() {
+		for (int trial = 0; trial < 1_000; trial++) {
+			double[][] outputs = randomPools(2, 800);
+			int[] allocation = SplitRouteSolver.allocate(outputs, INCREMENTS);
+
+			double best = 0;
+			for (int k = 0; k <= INCREMENTS; k++) {
+				best = Math.max(best, outputs[0][k] + outputs[1][INCREMENTS - k]);
+			}
+			assertEquals(best, SplitRouteSolver.totalOutput(outputs, allocation), 1e-6);
+		}
+	}
+
+	@Test
+	void matchesBruteForceForThreeVenues() {
+		for (int trial = 0; trial < 200; trial++) {
+			double[][] outputs = randomPools(3, 800);
+			int[] allocation = SplitRouteSolver.allocate(outputs, INCREMENTS);
+
+			double best = 0;
+			for (int a = 0; a <= INCREMENTS; a++) {
+				for (int b = 0; a + b <= INCREMENTS; b++) {
+					best = Math.max(best, outputs[0][a] + outputs[1][b] + outputs[2][INCREMENTS - a - b]);
+				}
+			}
+			assertEquals(best, SplitRouteSolver.totalOutput(outputs, allocation), 1e-6);
+		}
+	}
+
+	@Test
+	void allocationCoversEveryIncrement() {
+		for (int venues = 1; venues <= 8; venues++) {
+			int[] allocation = SplitRouteSolver.allocate(randomPools(venues, 800), INCREMENTS);
+
+			assertEquals(venues, allocation.length);
+			assertEquals(INCREMENTS, Arrays.stream(allocation).sum());
+		}
+	}
+
+	// Constant-product output curves like the mock pools: output(x) = p * R * x / (R + x)
+	private double[][] randomPools(int venues, double amount) {
+		double[][] outputs = new double[venues][INCREMENTS + 1];
+		for (int v = 0; v < venues; v++) {
+			double price = 97 + random.nextDouble() * 5;
+			double reserve = 1_000 + random.nextDouble() * 9_000;
+			for (int k = 1; k <= INCREMENTS; k++) {
+				double size = amount * k / INCREMENTS;
+				outputs[v][k] = price * reserve * size / (reserve + size);
+			}
+		}
+		return outputs;
+	}
+}
@@ -0,0 +1,14 @@
+package com.dex.orderengine.service;
+
+class StagedOrderPipelineTest extends OrderPipelineTestSupport {
+
+	@Override
+	protected OrderPipeline createPipeline() {
+		return new StagedOrderPipeline(dexRoutingService, splitRouter, lifecycle, confirmationTracker, 2, 2, 2, 8);
+	}
+
+	@Override
+	protected void shutdown(OrderPipeline pipeline) {
+		((StagedOrderPipeline) pipeline).shutdown();
+	}
+}
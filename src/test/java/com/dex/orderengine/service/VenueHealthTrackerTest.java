@@ -0,0 +1,181 @@
+package com.dex.orderengine.service;
+
+import com.dex.orderengine.dto.DexQuote;
+import com.dex.orderengine.model.CircuitState;
+import com.dex.orderengine.model.DexType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VenueHealthTrackerTest {
+
+	private static final DexType DEX = DexType.RAYDIUM;
+
+	private final AtomicLong now = new AtomicLong(1_000_000);
+	private final VenueHealthTracker tracker = new VenueHealthTracker(now::get);
+
+	@Test
+	void opensOnceFailuresPassTheThresholdWithEnoughSamples() {
+		for (int i = 0; i < VenueHealthTracker.MIN_SAMPLES - 1; i++) {
+			tracker.recordQuote(DEX, 50, false);
+		}
+		assertEquals(CircuitState.CLOSED, state());
+		assertTrue(tracker.allowQuote(DEX));
+
+		tracker.recordQuote(DEX, 50, false);
+
+		assertEquals(CircuitState.OPEN, state());
+		assertFalse(tracker.allowQuote(DEX));
+	}
+
+	@Test
+	void staysClosedWhileMostOutcomesSucceed() {
+		for (int i = 0; i < 20; i++) {
+			tracker.recordQuote(DEX, 50, i % 3 != 0);
+			tracker.recordExecution(DEX, 400, true);
+		}
+
+		assertEquals(CircuitState.CLOSED, state());
+	}
+
+	@Test
+	void slowQuoteCountsAsAFailure() {
+		for (int i = 0; i < VenueHealthTracker.MIN_SAMPLES; i++) {
+			tracker.recordQuote(DEX, VenueHealthTracker.SLOW_QUOTE_MS + 1, true);
+		}
+
+		assertEquals(CircuitState.OPEN, state());
+	}
+
+	@Test
+	void letsExactlyOneProbeThroughAfterTheCooldown() {
+		open();
+
+		now.addAndGet(VenueHealthTracker.OPEN_DURATION_MS - 1);
+		assertFalse(tracker.allowQuote(DEX));
+
+		now.incrementAndGet();
+		assertTrue(tracker.allowQuote(DEX));
+		assertEquals(CircuitState.HALF_OPEN, state());
+		assertFalse(tracker.allowQuote(DEX));
+	}
+
+	@Test
+	void successfulProbeClosesTheBreaker() {
+		startProbe();
+
+		tracker.recordQuote(DEX, 50, true);
+
+		assertEquals(CircuitState.CLOSED, state());
+		assertTrue(tracker.allowQuote(DEX));
+		assertTrue(tracker.allowQuote(DEX));
+	}
+
+	@Test
+	void failedProbeReopensTheBreakerForAnotherCooldown() {
+		startProbe();
+
+		tracker.recordQuote(DEX, 50, false);
+
+		assertEquals(CircuitState.OPEN, state());
+		assertFalse(tracker.allowQuote(DEX));
+		now.addAndGet(VenueHealthTracker.OPEN_DURATION_MS);
+		assertTrue(tracker.allowQuote(DEX));
+	}
+
+	@Test
+	void lateExecutionsDoNotSettleTheProbe() {
+		startProbe();
+
+		tracker.recordExecution(DEX, 40_000, true);
+		tracker.recordExecution(DEX, 40_000, false);
+
+		assertEquals(CircuitState.HALF_OPEN, state());
+		assertFalse(tracker.allowQuote(DEX));
+
+		tracker.recordQuote(DEX, 50, true);
+		assertEquals(CircuitState.CLOSED, state());
+	}
+
+	@Test
+	void quoteStartedBeforeTheBreakerOpenedDoesNotSettleTheProbe() {
+		startProbe();
+
+		// Started before the cooldown, so before the breaker opened
+		tracker.recordQuote(DEX, VenueHealthTracker.OPEN_DURATION_MS + 100, true);
+
+		assertEquals(CircuitState.HALF_OPEN, state());
+	}
+
+	@Test
+	void executionsWhileOpenOnlyFeedTheWindow() {
+		open();
+		int samples = tracker.getHealth().get(DEX).getExecutionSamples();
+
+		tracker.recordExecution(DEX, 400, true);
+
+		assertEquals(CircuitState.OPEN, state());
+		assertEquals(samples + 1, tracker.getHealth().get(DEX).getExecutionSamples());
+	}
+
+	@Test
+	void unknownVenueIsScoredAtEvenOdds() {
+		assertEquals(0.5 * (1 - 0.0005 * 0.1), tracker.weight(DEX, 100), 1e-12);
+	}
+
+	@Test
+	void scoreFollowsFillProbabilityAndLatency() {
+		for (int i = 0; i < 8; i++) {
+			tracker.recordExecution(DEX, 1_000, true);
+		}
+		// Laplace-smoothed: (8 + 1) / (8 + 2)
+		assertEquals(0.9, tracker.getHealth().get(DEX).getFillProbability(), 1e-12);
+		assertEquals(0.9 * (1 - 0.0005 * 1.2), tracker.weight(DEX, 200), 1e-12);
+
+		DexQuote fast = quote(100);
+		DexQuote slow = quote(900);
+		assertEquals(new BigDecimal("100").multiply(BigDecimal.valueOf(tracker.weight(DEX, 100))), tracker.score(fast));
+		assertTrue(tracker.score(fast).compareTo(tracker.score(slow)) > 0);
+	}
+
+	@Test
+	void unreliableVenueScoresBelowAReliableOne() {
+		for (int i = 0; i < 8; i++) {
+			tracker.recordExecution(DexType.RAYDIUM, 500, true);
+			tracker.recordExecution(DexType.METEORA, 500, i % 2 == 0);
+		}
+
+		assertTrue(tracker.weight(DexType.RAYDIUM, 100) > tracker.weight(DexType.METEORA, 100));
+	}
+
+	private void open() {
+		for (int i = 0; i < VenueHealthTracker.MIN_SAMPLES; i++) {
+			tracker.recordQuote(DEX, 50, false);
+		}
+		assertEquals(CircuitState.OPEN, state());
+	}
+
+	private void startProbe() {
+		open();
+		now.addAndGet(VenueHealthTracker.OPEN_DURATION_MS);
+		assertTrue(tracker.allowQuote(DEX));
+		now.addAndGet(50);
+	}
+
+	private CircuitState state() {
+		return tracker.getHealth().get(DEX).getCircuitState();
+	}
+
+	private static DexQuote quote(long responseTimeMs) {
+		return DexQuote.builder()
+				.dexType(DEX)
+				.outputAmount(new BigDecimal("100"))
+				.responseTimeMs(responseTimeMs)
+				.build();
+	}
+}